@@ -0,0 +1,48 @@
+package com.store.benchmark;
+
+import com.store.StoreSalesSystemApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Boots the whole application, with or without the web server, against a private in-memory H2 database.
+// Arguments are passed as command line properties so they win over any application.properties on the classpath
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(Map<String, String> overrides) {
+        return start(overrides, WebApplicationType.NONE);
+    }
+
+    public static ConfigurableApplicationContext start(Map<String, String> overrides, WebApplicationType webApplicationType) {
+        // 16 threads buying 100-line baskets queue on product rows for longer than H2's default lock timeout
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=MySQL;LOCK_TIMEOUT=60000;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN",
+                // Checkout limits would reject most of the generated sales; a list property is replaced as a whole
+                "--store.sales.limit.backend=LOCAL",
+                "--store.sales.limit.policies[0].name=customer-daily",
+                "--store.sales.limit.policies[0].scope=CUSTOMER",
+                "--store.sales.limit.policies[0].limit=" + Integer.MAX_VALUE,
+                "--store.sales.limit.policies[0].window=1d"
+        ));
+        overrides.forEach((key, value) -> args.add("--" + key + "=" + value));
+
+        return new SpringApplicationBuilder(StoreSalesSystemApplication.class)
+                .web(webApplicationType)
+                .run(args.toArray(String[]::new));
+    }
+}
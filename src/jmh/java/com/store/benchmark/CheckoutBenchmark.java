@@ -0,0 +1,114 @@
+package com.store.benchmark;
+
+import com.store.dto.sale.SaleRequestDTO;
+import com.store.dto.sale.SaleResponseDTO;
+import com.store.dto.saleDetail.SaleDetailRequestDTO;
+import com.store.entity.Customer;
+import com.store.entity.Product;
+import com.store.repository.CustomerRepository;
+import com.store.repository.ProductRepository;
+import com.store.service.SaleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// SaleService.createNewSale end to end: customer lookup, limits, stock UPDATEs, sale and detail inserts and
+// aggregates, all against embedded H2. Sales are deleted after every iteration so the tables stay the same size
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    private static final int CUSTOMERS = 1_000;
+    private static final int PRODUCTS = 1_000;
+
+    @Param({"1", "10", "100"})
+    private int basketSize;
+
+    private ConfigurableApplicationContext context;
+    private SaleService saleService;
+    private JdbcTemplate jdbcTemplate;
+    private long[] customerIds;
+    private long[] productIds;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start(Map.of());
+        saleService = context.getBean(SaleService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        List<Customer> customers = new ArrayList<>(CUSTOMERS);
+        for(int i = 0; i < CUSTOMERS; i++) {
+            customers.add(new Customer("Customer" + i, "Benchmark", "customer" + i + "@benchmark.store"));
+        }
+        customerIds = context.getBean(CustomerRepository.class).saveAll(customers).stream()
+                .mapToLong(Customer::getId)
+                .toArray();
+
+        // Stock never runs out, whatever the throughput
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for(int i = 0; i < PRODUCTS; i++) {
+            products.add(new Product("Product" + i, "Benchmark", 10.0, Integer.MAX_VALUE / 2));
+        }
+        productIds = context.getBean(ProductRepository.class).saveAll(products).stream()
+                .mapToLong(Product::getId)
+                .toArray();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteSales() {
+        jdbcTemplate.update("DELETE FROM sale_details");
+        jdbcTemplate.update("DELETE FROM sales");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public SaleResponseDTO checkout(Basket basket) {
+        return saleService.createNewSale(basket.next(this));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public SaleResponseDTO checkout4Threads(Basket basket) {
+        return saleService.createNewSale(basket.next(this));
+    }
+
+    @Benchmark
+    @Threads(16)
+    public SaleResponseDTO checkout16Threads(Basket basket) {
+        return saleService.createNewSale(basket.next(this));
+    }
+
+    // A random customer buying basketSize distinct products, one unit each
+    @State(Scope.Thread)
+    public static class Basket {
+
+        private final SplittableRandom random = new SplittableRandom();
+        private final BigDecimal price = new BigDecimal("10.00");
+
+        SaleRequestDTO next(CheckoutBenchmark benchmark) {
+            int firstProduct = random.nextInt(PRODUCTS);
+            List<SaleDetailRequestDTO> details = new ArrayList<>(benchmark.basketSize);
+            for(int i = 0; i < benchmark.basketSize; i++) {
+                details.add(new SaleDetailRequestDTO(benchmark.productIds[(firstProduct + i) % PRODUCTS], 1, price));
+            }
+
+            return new SaleRequestDTO(benchmark.customerIds[random.nextInt(CUSTOMERS)], details);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.store.benchmark;
+
+import com.store.enums.CsvImportMode;
+import com.store.service.csv.CsvImportJob;
+import com.store.service.csv.CsvImportService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// One operation is a whole import of a synthetic CSV into H2, through the multipart stream path or the
+// memory-mapped local file path. rows/rejectedRows are reported per second, peakHeapMb per iteration;
+// run with -prof gc and divide gc.alloc.rate.norm by the row count for bytes allocated per row.
+// 10M rows is supported (-p rows=10000000) but needs a few GB of heap for the in-memory database
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CsvImportBenchmark {
+
+    private static final long SEED = 42;
+
+    @Param({"10000", "100000", "1000000"})
+    private long rows;
+
+    @Param({"0.0", "0.05"})
+    private double malformedShare;
+
+    @Param({"STREAM", "MAPPED"})
+    private String source;
+
+    private ConfigurableApplicationContext context;
+    private CsvImportService csvImportService;
+    private JdbcTemplate jdbcTemplate;
+    private Path csvFile;
+
+    @Setup(Level.Trial)
+    public void startApplication() throws Exception {
+        context = BenchmarkApplication.start(Map.of());
+        csvImportService = context.getBean(CsvImportService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        csvFile = SyntheticProductCsv.write(Files.createTempFile("products-", ".csv"), rows, malformedShare, SEED);
+    }
+
+    // Every import inserts the same keys, so the previous one is removed outside the measured time
+    @Setup(Level.Invocation)
+    public void deleteProducts() {
+        jdbcTemplate.update("DELETE FROM products");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() throws Exception {
+        context.close();
+        Files.deleteIfExists(csvFile);
+    }
+
+    @Benchmark
+    public CsvImportJob importCsv(ImportCounters counters, HeapCounters heap) throws Exception {
+        CsvImportJob job = new CsvImportJob(UUID.randomUUID().toString(), CsvImportMode.INSERT, 100);
+        job.start();
+
+        if(source.equals("MAPPED")) {
+            csvImportService.importProductsFromFile(csvFile, true, job);
+        } else {
+            try(InputStream inputStream = Files.newInputStream(csvFile)) {
+                csvImportService.importProducts(inputStream, true, job);
+            }
+        }
+        job.complete();
+
+        counters.rows += job.getRowsImported();
+        counters.rejectedRows += job.getRowsRejected();
+        heap.recordPeak();
+
+        return job;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ImportCounters {
+
+        public long rows;
+        public long rejectedRows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+            rejectedRows = 0;
+        }
+    }
+
+    // Sum of the heap pools' peaks since the iteration started; an upper bound on the heap actually in use
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapCounters {
+
+        public double peakHeapMb;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            peakHeapMb = 0;
+            ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        }
+
+        void recordPeak() {
+            long peak = 0;
+            for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if(pool.getType() == MemoryType.HEAP) {
+                    peak += pool.getPeakUsage().getUsed();
+                }
+            }
+            peakHeapMb = Math.max(peakHeapMb, peak / (1024.0 * 1024.0));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.store.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.store.dto.sale.SaleRequestDTO;
+import com.store.dto.saleDetail.SaleDetailRequestDTO;
+import com.store.entity.Customer;
+import com.store.entity.Product;
+import com.store.repository.CustomerRepository;
+import com.store.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// The running server under 256 concurrent clients, with request handling on Tomcat's platform pool or on virtual
+// threads, and with or without the connection limiter. Throughput mode gives requests per second, sample mode the
+// latency percentiles (p0.99). Client count: -Djmh.args="HttpLoadBenchmark -t 1024"
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(256)
+@Fork(1)
+public class HttpLoadBenchmark {
+
+    private static final int CUSTOMERS = 1_000;
+    private static final int PRODUCTS = 1_000;
+    private static final int BASKET_SIZE = 3;
+
+    public enum ThreadMode {
+        PLATFORM, VIRTUAL
+    }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private ThreadMode threadMode;
+
+    @Param({"true", "false"})
+    private boolean connectionLimiter;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private ObjectMapper objectMapper;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private String baseUrl;
+    private long[] customerIds;
+    private long[] productIds;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        context = BenchmarkApplication.start(Map.of(
+                "server.port", "0",
+                "management.server.port", "-1",
+                "spring.threads.virtual.enabled", String.valueOf(threadMode == ThreadMode.VIRTUAL),
+                "store.datasource.limiter.enabled", String.valueOf(connectionLimiter)
+        ), WebApplicationType.SERVLET);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/";
+
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+
+        List<Customer> customers = new ArrayList<>(CUSTOMERS);
+        for(int i = 0; i < CUSTOMERS; i++) {
+            customers.add(new Customer("Customer" + i, "Benchmark", "customer" + i + "@benchmark.store"));
+        }
+        customerIds = context.getBean(CustomerRepository.class).saveAll(customers).stream()
+                .mapToLong(Customer::getId)
+                .toArray();
+
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for(int i = 0; i < PRODUCTS; i++) {
+            products.add(new Product("Product" + i, "Benchmark", 10.0, Integer.MAX_VALUE / 2));
+        }
+        productIds = context.getBean(ProductRepository.class).saveAll(products).stream()
+                .mapToLong(Product::getId)
+                .toArray();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteSales() {
+        jdbcTemplate.update("DELETE FROM sale_details");
+        jdbcTemplate.update("DELETE FROM sales");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        client.close();
+        clientExecutor.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int checkout(Client state) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "sales"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(state.nextSale(this))))
+                .build();
+
+        return send(request);
+    }
+
+    @Benchmark
+    public int salesPage() throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "sales/page?size=20")).GET().build());
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if(response.statusCode() != 200) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " answered " + response.statusCode());
+        }
+
+        return response.body().length;
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private final SplittableRandom random = new SplittableRandom();
+        private final BigDecimal price = new BigDecimal("10.00");
+
+        SaleRequestDTO nextSale(HttpLoadBenchmark benchmark) {
+            int firstProduct = random.nextInt(PRODUCTS);
+            List<SaleDetailRequestDTO> details = new ArrayList<>(BASKET_SIZE);
+            for(int i = 0; i < BASKET_SIZE; i++) {
+                details.add(new SaleDetailRequestDTO(benchmark.productIds[(firstProduct + i) % PRODUCTS], 1, price));
+            }
+
+            return new SaleRequestDTO(benchmark.customerIds[random.nextInt(CUSTOMERS)], details);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.store.benchmark;
+
+import com.store.dto.sale.SaleResponseDTO;
+import com.store.entity.Customer;
+import com.store.entity.Product;
+import com.store.entity.Sale;
+import com.store.entity.SaleDetail;
+import com.store.mapper.CustomerMapperImpl;
+import com.store.mapper.SaleDetailMapperImpl;
+import com.store.mapper.SaleMapper;
+import com.store.mapper.SaleMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// MapStruct SaleMapper.toSaleResponse on a detached sale, wired through a minimal Spring context
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaleMapperBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int basketSize;
+
+    private AnnotationConfigApplicationContext context;
+    private SaleMapper saleMapper;
+    private Sale sale;
+
+    @Setup
+    public void createSale() {
+        context = new AnnotationConfigApplicationContext(SaleMapperImpl.class, CustomerMapperImpl.class, SaleDetailMapperImpl.class);
+        saleMapper = context.getBean(SaleMapper.class);
+
+        Customer customer = Customer.builder().id(1L).name("Customer").lastName("Benchmark").email("customer@benchmark.store").build();
+        List<SaleDetail> details = new ArrayList<>(basketSize);
+        for(int i = 0; i < basketSize; i++) {
+            Product product = Product.builder().id((long) i).name("Product" + i).brand("Benchmark").price(10.0).stock(100).build();
+            details.add(SaleDetail.builder().id((long) i).product(product).quantity(1).price(new BigDecimal("10.00")).build());
+        }
+
+        sale = Sale.builder()
+                .id(1L)
+                .saleDate(LocalDate.now())
+                .totalAmount(BigDecimal.valueOf(1_000L * basketSize, 2))
+                .customer(customer)
+                .saleDetails(details)
+                .build();
+        details.forEach(detail -> detail.setSale(sale));
+    }
+
+    @TearDown
+    public void closeContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public SaleResponseDTO toSaleResponse() {
+        return saleMapper.toSaleResponse(sale);
+    }
+}
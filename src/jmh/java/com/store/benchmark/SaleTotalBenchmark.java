@@ -0,0 +1,63 @@
+package com.store.benchmark;
+
+import com.store.dto.saleDetail.SaleDetailRequestDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Sale total over a basket of two-decimal prices. bigDecimalLoop is what checkout does today;
+// the others are candidates to compare it against
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaleTotalBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int basketSize;
+
+    private List<SaleDetailRequestDTO> details;
+
+    @Setup
+    public void createBasket() {
+        SplittableRandom random = new SplittableRandom(42);
+        details = new ArrayList<>(basketSize);
+        for(int i = 0; i < basketSize; i++) {
+            details.add(new SaleDetailRequestDTO((long) i, 1 + random.nextInt(10), BigDecimal.valueOf(100 + random.nextInt(999_900), 2)));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalLoop() {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for(SaleDetailRequestDTO detail : details) {
+            totalAmount = totalAmount.add(detail.price().multiply(BigDecimal.valueOf(detail.quantity())));
+        }
+
+        return totalAmount;
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalStream() {
+        return details.stream()
+                .map(detail -> detail.price().multiply(BigDecimal.valueOf(detail.quantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    // Exact only while every price has at most two decimals and the total fits in a long of cents
+    @Benchmark
+    public BigDecimal unscaledCents() {
+        long cents = 0;
+        for(SaleDetailRequestDTO detail : details) {
+            cents = Math.addExact(cents, Math.multiplyExact(detail.price().movePointRight(2).longValueExact(), detail.quantity()));
+        }
+
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
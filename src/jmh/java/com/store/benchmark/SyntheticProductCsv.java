@@ -0,0 +1,39 @@
+package com.store.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+// Writes a product CSV with a header and the given number of rows, every (name, brand) pair unique.
+// About malformedShare of the rows are broken, alternating between a missing column and a non-numeric price,
+// so a run reports the same rejections for the same seed
+public final class SyntheticProductCsv {
+
+    private SyntheticProductCsv() {
+    }
+
+    public static Path write(Path file, long rows, double malformedShare, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        try(BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("name,brand,price,stock\n");
+
+            for(long row = 0; row < rows; row++) {
+                if(random.nextDouble() < malformedShare) {
+                    writer.write(row % 2 == 0
+                            ? "Product" + row + ",Brand" + (row % 97) + ",12.50\n"
+                            : "Product" + row + ",Brand" + (row % 97) + ",not-a-price," + random.nextInt(1_000) + '\n');
+                    continue;
+                }
+
+                writer.write("Product" + row + ",Brand" + (row % 97) + ',' + (random.nextInt(1_000_000) / 100.0) + ','
+                        + random.nextInt(1_000) + '\n');
+            }
+        }
+
+        return file;
+    }
+}
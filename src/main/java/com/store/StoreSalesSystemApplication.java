@@ -2,8 +2,14 @@ package com.store;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {"com.store"})
+@ConfigurationPropertiesScan(basePackages = {"com.store"})
+@EnableScheduling
+@EnableCaching
 public class StoreSalesSystemApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,14 @@
+package com.store.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "store.datasource.limiter")
+public record ConnectionLimiterProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10") int maxConcurrent,
+        @DefaultValue("30s") Duration acquireTimeout
+) {
+}
@@ -0,0 +1,25 @@
+package com.store.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "store.csv-import")
+public record CsvImportProperties(
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("2") int maxConcurrentJobs,
+        @DefaultValue("10") int queueCapacity,
+        @DefaultValue("100") int maxReportedRejections,
+        @DefaultValue("1h") Duration jobRetention,
+        @DefaultValue("0") int parserThreads,
+        @DefaultValue("4") int writerThreads,
+        @DefaultValue("8") int maxInFlightChunks,
+        Path localDirectory
+) {
+
+    public int effectiveParserThreads() {
+        return parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,69 @@
+package com.store.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+// ddl-auto=update creates the id sequences of the batched entities starting at 1, even next to tables that already
+// hold rows. Each one is moved past its table's highest id while the context starts, before any request can insert.
+// Databases without sequences (MySQL) get a one-row <name>_seq table instead of a sequence; both are handled
+@Component
+public class IdSequenceInitializer implements InitializingBean {
+
+    // Must match allocationSize on the entities' @SequenceGenerator
+    static final int ALLOCATION_SIZE = 50;
+    static final Map<String, String> SEQUENCES = Map.of(
+            "products", "products_seq",
+            "sales", "sales_seq",
+            "sale_details", "sale_details_seq"
+    );
+
+    private final SequenceSupport sequenceSupport;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public IdSequenceInitializer(EntityManagerFactory entityManagerFactory, TransactionTemplate transactionTemplate) {
+        this.sequenceSupport = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport();
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        transactionTemplate.executeWithoutResult(status -> SEQUENCES.forEach(this::seed));
+    }
+
+    private void seed(String table, String sequence) {
+        long maxId = longResult("SELECT COALESCE(MAX(id), 0) FROM " + table);
+        // The pooled optimizer hands out up to ALLOCATION_SIZE ids below the value it reads
+        long floor = maxId + ALLOCATION_SIZE + 1;
+
+        if(!sequenceSupport.supportsSequences()) {
+            // Only ever moves forward, so nodes starting together cannot pull it back
+            entityManager.createNativeQuery("UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?")
+                    .setParameter(1, floor)
+                    .setParameter(2, floor)
+                    .executeUpdate();
+            return;
+        }
+
+        if(longResult(sequenceSupport.getSequenceNextValString(sequence)) < floor) {
+            entityManager.createNativeQuery("ALTER SEQUENCE " + sequence + " RESTART WITH " + floor).executeUpdate();
+        }
+    }
+
+    private long longResult(String sql) {
+        return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+}
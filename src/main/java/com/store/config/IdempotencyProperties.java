@@ -0,0 +1,13 @@
+package com.store.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "store.sales.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("10000") int cacheSize,
+        @DefaultValue("24h") Duration retention
+) {
+}
@@ -0,0 +1,32 @@
+package com.store.config;
+
+import com.store.metrics.SqlStatementAsyncInterceptor;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final SqlStatementAsyncInterceptor sqlStatementAsyncInterceptor;
+
+    @Autowired
+    public MetricsConfig(SqlStatementAsyncInterceptor sqlStatementAsyncInterceptor) {
+        this.sqlStatementAsyncInterceptor = sqlStatementAsyncInterceptor;
+    }
+
+    // Backs the class-level @Timed on the services: one timer per method, tagged with the exception it threw
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(sqlStatementAsyncInterceptor);
+    }
+}
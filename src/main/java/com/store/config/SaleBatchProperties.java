@@ -0,0 +1,10 @@
+package com.store.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "store.sales.batch")
+public record SaleBatchProperties(
+        @DefaultValue("500") int maxSize
+) {
+}
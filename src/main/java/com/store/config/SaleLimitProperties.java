@@ -0,0 +1,34 @@
+package com.store.config;
+
+import com.store.enums.SaleLimitScope;
+import com.store.enums.SaleLimiterBackend;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "store.sales.limit")
+public record SaleLimitProperties(
+        @DefaultValue("LOCAL") SaleLimiterBackend backend,
+        List<Policy> policies
+) {
+
+    public SaleLimitProperties {
+        policies = policies == null ? List.of() : List.copyOf(policies);
+    }
+
+    public record Policy(
+            String name,
+            SaleLimitScope scope,
+            int limit,
+            Duration window
+    ) {
+
+        public Policy {
+            if(name == null || scope == null || limit < 1 || window == null || window.toSeconds() < 1) {
+                throw new IllegalArgumentException("Sale limit policy needs a name, a scope, a positive limit and a window of at least one second");
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.store.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "store.sql")
+public record SqlTrackingProperties(
+        @DefaultValue("200ms") Duration slowQueryThreshold,
+        @DefaultValue("1000") int slowQueryQueueCapacity,
+        @DefaultValue("true") boolean responseHeaders
+) {
+}
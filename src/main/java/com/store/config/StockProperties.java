@@ -0,0 +1,11 @@
+package com.store.config;
+
+import com.store.enums.StockReservationMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "store.stock")
+public record StockProperties(
+        @DefaultValue("ATOMIC") StockReservationMode reservationMode
+) {
+}
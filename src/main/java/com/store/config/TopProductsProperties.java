@@ -0,0 +1,15 @@
+package com.store.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "store.products.top")
+public record TopProductsProperties(
+        @DefaultValue("2048") int sketchWidth,
+        @DefaultValue("5") int sketchDepth,
+        @DefaultValue("256") int candidates,
+        @DefaultValue("100000") int trackedSales,
+        @DefaultValue("10") int defaultLimit,
+        @DefaultValue("100") int maxLimit
+) {
+}
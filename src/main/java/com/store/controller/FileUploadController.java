@@ -1,8 +1,13 @@
 package com.store.controller;
 
-import com.store.service.csv.CsvImportService;
+import com.store.dto.csv.CsvImportJobResponseDTO;
+import com.store.enums.CsvImportMode;
+import com.store.service.csv.CsvImportJobService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -13,21 +18,29 @@ import org.springframework.web.multipart.MultipartFile;
 @RequestMapping("api/files")
 public class FileUploadController {
 
-    private final CsvImportService csvImportService;
+    private final CsvImportJobService csvImportJobService;
 
     @Autowired
-    public FileUploadController(CsvImportService csvImportService) {
-        this.csvImportService = csvImportService;
+    public FileUploadController(CsvImportJobService csvImportJobService) {
+        this.csvImportJobService = csvImportJobService;
     }
 
     @PostMapping("/upload-csv")
-    public ResponseEntity<String> uploadProductsFromCsv(@RequestParam("file") MultipartFile csvFile,
-                                                        @RequestParam(value = "hasHeader", defaultValue = "true") boolean hasHeader) {
-        try {
-            csvImportService.saveProductsFromCsv(csvFile, hasHeader);
-            return ResponseEntity.ok("File uploaded with success");
-        } catch(Exception e) {
-            return ResponseEntity.status(500).body("Error uploading file");
-        }
+    public ResponseEntity<CsvImportJobResponseDTO> uploadProductsFromCsv(@RequestParam("file") MultipartFile csvFile,
+                                                                         @RequestParam(value = "hasHeader", defaultValue = "true") boolean hasHeader,
+                                                                         @RequestParam(value = "mode", defaultValue = "UPSERT") CsvImportMode mode) {
+        return new ResponseEntity<>(csvImportJobService.submitProductsImport(csvFile, hasHeader, mode), HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("/import-local")
+    public ResponseEntity<CsvImportJobResponseDTO> importProductsFromLocalFile(@RequestParam("fileName") String fileName,
+                                                                               @RequestParam(value = "hasHeader", defaultValue = "true") boolean hasHeader,
+                                                                               @RequestParam(value = "mode", defaultValue = "UPSERT") CsvImportMode mode) {
+        return new ResponseEntity<>(csvImportJobService.submitLocalProductsImport(fileName, hasHeader, mode), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<CsvImportJobResponseDTO> getImportJob(@PathVariable String id) {
+        return new ResponseEntity<>(csvImportJobService.getJob(id), HttpStatus.OK);
     }
 }
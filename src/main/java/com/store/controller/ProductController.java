@@ -1,8 +1,14 @@
 package com.store.controller;
 
+import com.store.dto.product.LowStockProductResponseDTO;
 import com.store.dto.product.ProductRequestDTO;
 import com.store.dto.product.ProductResponseDTO;
+import com.store.dto.product.ReorderThresholdRequestDTO;
+import com.store.dto.product.StockLevelDTO;
+import com.store.dto.product.TopProductResponseDTO;
+import com.store.enums.TopProductsWindow;
 import com.store.service.ProductService;
+import com.store.service.ranking.TopProductsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,10 +21,12 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final TopProductsService topProductsService;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, TopProductsService topProductsService) {
         this.productService = productService;
+        this.topProductsService = topProductsService;
     }
 
     //TODO: Add @Positive annotation after @PathVariable and manage the exception
@@ -32,6 +40,17 @@ public class ProductController {
         return new ResponseEntity<>(productService.getAllProducts(), HttpStatus.OK);
     }
 
+    @GetMapping("top")
+    public ResponseEntity<List<TopProductResponseDTO>> getTopProducts(@RequestParam(value = "window", defaultValue = "HOUR") TopProductsWindow window,
+                                                                      @RequestParam(value = "limit", required = false) Integer limit) {
+        return new ResponseEntity<>(topProductsService.getTopProducts(window, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("low-stock")
+    public ResponseEntity<List<LowStockProductResponseDTO>> getLowStockProducts(@RequestParam(value = "limit", required = false) Integer limit) {
+        return new ResponseEntity<>(productService.getLowStockProducts(limit), HttpStatus.OK);
+    }
+
     //TODO: Add @Valid annotation in param for validation
     @PostMapping
     public ResponseEntity<ProductResponseDTO> createNewProduct(@RequestBody ProductRequestDTO productRequestDTO) {
@@ -43,6 +62,11 @@ public class ProductController {
         return new ResponseEntity<>(productService.updateProduct(id, productRequestDTO), HttpStatus.OK);
     }
 
+    @PutMapping("{id}/threshold")
+    public ResponseEntity<StockLevelDTO> updateReorderThreshold(@PathVariable Long id, @RequestBody ReorderThresholdRequestDTO thresholdRequest) {
+        return new ResponseEntity<>(productService.updateReorderThreshold(id, thresholdRequest), HttpStatus.OK);
+    }
+
     @DeleteMapping("{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
         productService.deleteProduct(id);
@@ -0,0 +1,47 @@
+package com.store.controller;
+
+import com.store.dto.report.DailyProductSalesDTO;
+import com.store.dto.report.DailySalesReportDTO;
+import com.store.service.report.ReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("api/reports")
+public class ReportController {
+
+    private final ReportService reportService;
+
+    @Autowired
+    public ReportController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    @GetMapping("daily")
+    public ResponseEntity<List<DailySalesReportDTO>> getDailySales(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return new ResponseEntity<>(reportService.getDailySales(from, to), HttpStatus.OK);
+    }
+
+    @GetMapping("daily/products")
+    public ResponseEntity<List<DailyProductSalesDTO>> getDailyProductSales(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "productId", required = false) Long productId) {
+        return new ResponseEntity<>(reportService.getDailyProductSales(from, to, productId), HttpStatus.OK);
+    }
+
+    @PostMapping("daily/rebuild")
+    public ResponseEntity<Integer> rebuildDailySales(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return new ResponseEntity<>(reportService.rebuildDailySales(from, to), HttpStatus.OK);
+    }
+}
@@ -1,13 +1,23 @@
 package com.store.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.store.dto.sale.SaleBatchResponseDTO;
+import com.store.dto.sale.SaleCancelBatchResponseDTO;
+import com.store.dto.sale.SalePageResponseDTO;
 import com.store.dto.sale.SaleRequestDTO;
 import com.store.dto.sale.SaleResponseDTO;
+import com.store.service.SaleBatchService;
 import com.store.service.SaleService;
+import com.store.service.idempotency.IdempotentSaleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -15,10 +25,17 @@ import java.util.List;
 public class SaleController {
 
     private final SaleService saleService;
+    private final SaleBatchService saleBatchService;
+    private final IdempotentSaleService idempotentSaleService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public SaleController(SaleService saleService) {
+    public SaleController(SaleService saleService, SaleBatchService saleBatchService,
+                          IdempotentSaleService idempotentSaleService, ObjectMapper objectMapper) {
         this.saleService = saleService;
+        this.saleBatchService = saleBatchService;
+        this.idempotentSaleService = idempotentSaleService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("{id}")
@@ -31,11 +48,48 @@ public class SaleController {
         return new ResponseEntity<>(saleService.getAllSales(), HttpStatus.OK);
     }
 
+    @GetMapping("page")
+    public ResponseEntity<SalePageResponseDTO> getSalesPage(@RequestParam(value = "after", required = false) Long after,
+                                                            @RequestParam(value = "size", required = false) Integer size) {
+        return new ResponseEntity<>(saleService.getSalesPage(after, size), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllSales() {
+        StreamingResponseBody body = outputStream -> saleService.streamAllSales(sale -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(sale));
+                outputStream.write('\n');
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @PostMapping
-    public ResponseEntity<SaleResponseDTO> createNewSale(@RequestBody SaleRequestDTO saleRequestDTO) {
+    public ResponseEntity<SaleResponseDTO> createNewSale(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                         @RequestBody SaleRequestDTO saleRequestDTO) {
+        if(idempotencyKey != null) {
+            return new ResponseEntity<>(idempotentSaleService.createNewSale(idempotencyKey, saleRequestDTO), HttpStatus.OK);
+        }
+
         return new ResponseEntity<>(saleService.createNewSale(saleRequestDTO), HttpStatus.OK);
     }
 
+    @PostMapping("batch")
+    public ResponseEntity<SaleBatchResponseDTO> createSales(@RequestBody List<SaleRequestDTO> saleRequests) {
+        return new ResponseEntity<>(saleBatchService.createSales(saleRequests), HttpStatus.OK);
+    }
+
+    @PutMapping("batch/cancel")
+    public ResponseEntity<SaleCancelBatchResponseDTO> cancelSales(@RequestBody List<Long> saleIds) {
+        return new ResponseEntity<>(saleBatchService.cancelSales(saleIds), HttpStatus.OK);
+    }
+
     @PutMapping("{id}")
     public ResponseEntity<SaleResponseDTO> cancelSale(@PathVariable Long id) {
         return new ResponseEntity<>(saleService.cancelSale(id), HttpStatus.OK);
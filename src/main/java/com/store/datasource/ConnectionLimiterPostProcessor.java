@@ -0,0 +1,30 @@
+package com.store.datasource;
+
+import com.store.config.ConnectionLimiterProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+@ConditionalOnProperty(prefix = "store.datasource.limiter", name = "enabled", havingValue = "true")
+public class ConnectionLimiterPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<ConnectionLimiterProperties> connectionLimiterProperties;
+
+    public ConnectionLimiterPostProcessor(ObjectProvider<ConnectionLimiterProperties> connectionLimiterProperties) {
+        this.connectionLimiterProperties = connectionLimiterProperties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if(!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+            return bean;
+        }
+
+        ConnectionLimiterProperties properties = connectionLimiterProperties.getObject();
+        return new ConnectionLimitingDataSource(dataSource, properties.maxConcurrent(), properties.acquireTimeout());
+    }
+}
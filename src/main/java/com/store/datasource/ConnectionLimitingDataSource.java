@@ -0,0 +1,111 @@
+package com.store.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Admits at most maxConcurrent threads to the pool at a time; the rest wait on a fair semaphore, in arrival order,
+// instead of all spinning on the pool. A permit belongs to the connection that took it: while it is open, nested
+// connections on the same thread (REQUIRES_NEW) go straight to the pool, since waiting for a permit the thread itself
+// holds would never end. Once it closes, the thread queues again even if other connections it opened are still open
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final ThreadLocal<AtomicBoolean> permitOnThread = ThreadLocal.withInitial(AtomicBoolean::new);
+
+    public ConnectionLimitingDataSource(DataSource targetDataSource, int maxConcurrent, Duration acquireTimeout) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return limit(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return limit(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private Connection limit(ConnectionSupplier supplier) throws SQLException {
+        AtomicBoolean permitHeld = permitOnThread.get();
+        boolean takesPermit = !permitHeld.get();
+
+        if(takesPermit) {
+            acquire();
+            permitHeld.set(true);
+        }
+        try {
+            return track(supplier.get(), takesPermit ? permitHeld : null);
+        } catch(SQLException | RuntimeException e) {
+            if(takesPermit) {
+                permitHeld.set(false);
+                permits.release();
+            }
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if(!permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("No database connection available within " + acquireTimeout);
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    // Closing gives the permit back exactly once, whichever thread closes and however often close is called.
+    // permitHeld is the opening thread's flag, or null for a nested connection that took no permit
+    private Connection track(Connection connection, AtomicBoolean permitHeld) {
+        AtomicBoolean closed = new AtomicBoolean();
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if(method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch(InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            if(permitHeld != null) {
+                                permitHeld.set(false);
+                                permits.release();
+                            }
+                        }
+                    }
+                    if(method.getName().equals("isClosed") && closed.get()) {
+                        return true;
+                    }
+
+                    try {
+                        return method.invoke(connection, args);
+                    } catch(InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
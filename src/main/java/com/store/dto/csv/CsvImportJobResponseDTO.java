@@ -0,0 +1,22 @@
+package com.store.dto.csv;
+
+import com.store.enums.CsvImportJobStatus;
+import com.store.enums.CsvImportMode;
+
+import java.time.Instant;
+import java.util.List;
+
+public record CsvImportJobResponseDTO(
+        String id,
+        CsvImportMode mode,
+        CsvImportJobStatus status,
+        long rowsProcessed,
+        long rowsImported,
+        long rowsRejected,
+        double rowsPerSecond,
+        Instant startedAt,
+        Instant finishedAt,
+        List<CsvRowErrorDTO> rejectedRows,
+        String errorMessage
+) {
+}
@@ -0,0 +1,7 @@
+package com.store.dto.csv;
+
+public record CsvRowErrorDTO(
+        long line,
+        String reason
+) {
+}
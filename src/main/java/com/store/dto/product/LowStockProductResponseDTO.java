@@ -0,0 +1,10 @@
+package com.store.dto.product;
+
+public record LowStockProductResponseDTO(
+        Long id,
+        String name,
+        String brand,
+        int stock,
+        int reorderThreshold
+) {
+}
@@ -0,0 +1,6 @@
+package com.store.dto.product;
+
+public record ReorderThresholdRequestDTO(
+        int reorderThreshold
+) {
+}
@@ -0,0 +1,12 @@
+package com.store.dto.product;
+
+public record StockLevelDTO(
+        Long productId,
+        int stock,
+        int reorderThreshold
+) {
+
+    public boolean isLow() {
+        return reorderThreshold > 0 && stock <= reorderThreshold;
+    }
+}
@@ -0,0 +1,9 @@
+package com.store.dto.product;
+
+public record TopProductResponseDTO(
+        Long id,
+        String name,
+        String brand,
+        long unitsSold
+) {
+}
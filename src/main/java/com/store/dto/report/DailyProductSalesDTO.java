@@ -0,0 +1,13 @@
+package com.store.dto.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyProductSalesDTO(
+        LocalDate date,
+        Long productId,
+        long units,
+        BigDecimal revenue,
+        long saleCount
+) {
+}
@@ -0,0 +1,11 @@
+package com.store.dto.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailySalesReportDTO(
+        LocalDate date,
+        Long units,
+        BigDecimal revenue
+) {
+}
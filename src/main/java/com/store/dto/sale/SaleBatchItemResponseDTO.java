@@ -0,0 +1,20 @@
+package com.store.dto.sale;
+
+import com.store.enums.SaleBatchItemStatus;
+
+public record SaleBatchItemResponseDTO(
+        int index,
+        SaleBatchItemStatus status,
+        SaleResponseDTO sale,
+        String errorCode,
+        String message
+) {
+
+    public static SaleBatchItemResponseDTO created(int index, SaleResponseDTO sale) {
+        return new SaleBatchItemResponseDTO(index, SaleBatchItemStatus.CREATED, sale, null, null);
+    }
+
+    public static SaleBatchItemResponseDTO failed(int index, String errorCode, String message) {
+        return new SaleBatchItemResponseDTO(index, SaleBatchItemStatus.FAILED, null, errorCode, message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.store.dto.sale;
+
+import java.util.List;
+
+public record SaleBatchResponseDTO(
+        int created,
+        int failed,
+        List<SaleBatchItemResponseDTO> items
+) {
+}
@@ -0,0 +1,10 @@
+package com.store.dto.sale;
+
+import java.util.List;
+
+public record SaleCancelBatchResponseDTO(
+        int canceled,
+        int failed,
+        List<SaleCancelItemResponseDTO> items
+) {
+}
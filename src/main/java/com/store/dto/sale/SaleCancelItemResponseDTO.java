@@ -0,0 +1,19 @@
+package com.store.dto.sale;
+
+import com.store.enums.SaleCancelItemStatus;
+
+public record SaleCancelItemResponseDTO(
+        Long saleId,
+        SaleCancelItemStatus status,
+        String errorCode,
+        String message
+) {
+
+    public static SaleCancelItemResponseDTO canceled(Long saleId) {
+        return new SaleCancelItemResponseDTO(saleId, SaleCancelItemStatus.CANCELED, null, null);
+    }
+
+    public static SaleCancelItemResponseDTO failed(Long saleId, String errorCode, String message) {
+        return new SaleCancelItemResponseDTO(saleId, SaleCancelItemStatus.FAILED, errorCode, message);
+    }
+}
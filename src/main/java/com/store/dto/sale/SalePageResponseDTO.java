@@ -0,0 +1,8 @@
+package com.store.dto.sale;
+
+import java.util.List;
+
+public record SalePageResponseDTO(
+        List<SaleResponseDTO> content,
+        Long nextCursor
+) {}
@@ -0,0 +1,22 @@
+package com.store.dto.sale;
+
+import com.store.enums.SaleStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One row per sale detail (or a single row with null detail fields for a sale without details)
+public record SaleRowDTO(
+        Long saleId,
+        LocalDate saleDate,
+        BigDecimal totalAmount,
+        SaleStatus status,
+        Long customerId,
+        String customerName,
+        String customerLastName,
+        String customerEmail,
+        Long productId,
+        String productName,
+        Integer quantity,
+        BigDecimal price
+) {}
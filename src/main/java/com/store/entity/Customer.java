@@ -7,7 +7,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "customers")
+@Table(
+        name = "customers",
+        uniqueConstraints = @UniqueConstraint(name = "uk_customers_email", columnNames = "email")
+)
 @Setter @Getter
 @AllArgsConstructor
 @NoArgsConstructor
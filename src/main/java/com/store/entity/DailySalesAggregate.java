@@ -0,0 +1,29 @@
+package com.store.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+// One row per day and product, kept in step with the sales table by the checkout and cancel transactions.
+// No foreign key to products, so deleting a product keeps its history
+@Entity
+@Table(name = "daily_sales_aggregate", indexes = @Index(name = "idx_daily_sales_aggregate_product_date", columnList = "product_id, sale_date"))
+@Getter @Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailySalesAggregate {
+
+    @EmbeddedId
+    private DailySalesAggregateId id;
+
+    @Column(name = "units", nullable = false)
+    private long units;
+
+    @Column(name = "revenue", nullable = false)
+    private BigDecimal revenue;
+
+    @Column(name = "sale_count", nullable = false)
+    private long saleCount;
+
+}
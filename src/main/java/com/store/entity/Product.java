@@ -2,11 +2,15 @@ package com.store.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(
+        name = "products",
+        uniqueConstraints = @UniqueConstraint(name = "uk_products_name_brand", columnNames = {"name", "brand"})
+)
 @Setter @Getter
 @AllArgsConstructor
 @NoArgsConstructor
@@ -16,7 +20,8 @@ import java.util.List;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     @Column(name = "id")
     @Setter(AccessLevel.NONE)
     private Long id;
@@ -33,6 +38,16 @@ public class Product {
     @Column(name = "stock", nullable = false)
     private int stock;
 
+    // Stock at or below this level is reported as low; 0 turns alerting off for the product
+    @Column(name = "reorder_threshold", nullable = false)
+    @ColumnDefault("0")
+    private int reorderThreshold;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private long version;
+
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<SaleDetail> saleDetails;
 
@@ -16,12 +16,13 @@ import java.math.BigDecimal;
 public class SaleDetail {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_details_seq")
+    @SequenceGenerator(name = "sale_details_seq", sequenceName = "sale_details_seq", allocationSize = 50)
     @Column(name = "id")
     @Setter(AccessLevel.NONE)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
@@ -31,7 +32,7 @@ public class SaleDetail {
     @Column(name = "price", nullable = false)
     private BigDecimal price;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sale_id", nullable = false)
     private Sale sale;
 
@@ -0,0 +1,24 @@
+package com.store.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "sale_limit_counters", indexes = @Index(name = "idx_sale_limit_counters_window_end", columnList = "window_end"))
+@Getter @Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SaleLimitCounter {
+
+    @EmbeddedId
+    private SaleLimitCounterId id;
+
+    @Column(name = "window_end", nullable = false)
+    private LocalDateTime windowEnd;
+
+    @Column(name = "used", nullable = false)
+    private int used;
+
+}
@@ -0,0 +1,26 @@
+package com.store.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Embeddable
+@Getter @Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+public class SaleLimitCounterId implements Serializable {
+
+    @Column(name = "policy", length = 64, nullable = false)
+    private String policy;
+
+    @Column(name = "subject", length = 128, nullable = false)
+    private String subject;
+
+    @Column(name = "window_start", nullable = false)
+    private LocalDateTime windowStart;
+
+}
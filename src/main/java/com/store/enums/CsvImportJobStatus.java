@@ -0,0 +1,8 @@
+package com.store.enums;
+
+public enum CsvImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
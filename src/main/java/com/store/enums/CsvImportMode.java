@@ -0,0 +1,6 @@
+package com.store.enums;
+
+public enum CsvImportMode {
+    INSERT,
+    UPSERT
+}
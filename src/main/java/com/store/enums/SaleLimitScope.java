@@ -0,0 +1,7 @@
+package com.store.enums;
+
+public enum SaleLimitScope {
+    CUSTOMER,
+    PRODUCT,
+    CUSTOMER_PRODUCT
+}
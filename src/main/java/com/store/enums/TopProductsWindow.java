@@ -0,0 +1,24 @@
+package com.store.enums;
+
+import java.time.Duration;
+
+public enum TopProductsWindow {
+    HOUR(Duration.ofHours(1), 12),
+    DAY(Duration.ofDays(1), 24);
+
+    private final Duration length;
+    private final int buckets;
+
+    TopProductsWindow(Duration length, int buckets) {
+        this.length = length;
+        this.buckets = buckets;
+    }
+
+    public Duration length() {
+        return length;
+    }
+
+    public int buckets() {
+        return buckets;
+    }
+}
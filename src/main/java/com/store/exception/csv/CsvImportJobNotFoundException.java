@@ -0,0 +1,8 @@
+package com.store.exception.csv;
+
+public class CsvImportJobNotFoundException extends RuntimeException {
+
+    public CsvImportJobNotFoundException(String message) {
+        super(message);
+    }
+}
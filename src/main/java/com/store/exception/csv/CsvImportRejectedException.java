@@ -0,0 +1,8 @@
+package com.store.exception.csv;
+
+public class CsvImportRejectedException extends RuntimeException {
+
+    public CsvImportRejectedException(String message) {
+        super(message);
+    }
+}
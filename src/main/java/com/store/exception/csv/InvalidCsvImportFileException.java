@@ -0,0 +1,8 @@
+package com.store.exception.csv;
+
+public class InvalidCsvImportFileException extends RuntimeException {
+
+    public InvalidCsvImportFileException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,25 @@
 package com.store.exception.handler;
 
+import com.store.exception.csv.CsvImportJobNotFoundException;
+import com.store.exception.csv.CsvImportRejectedException;
+import com.store.exception.csv.InvalidCsvImportFileException;
 import com.store.exception.customer.CustomerAlreadyExistsException;
 import com.store.exception.customer.CustomerNotFoundException;
 import com.store.exception.model.ApiError;
 import com.store.exception.product.InsufficientStockException;
+import com.store.exception.product.InvalidReorderThresholdException;
 import com.store.exception.product.ProductAlreadyExistsException;
 import com.store.exception.product.ProductNotFoundException;
+import com.store.exception.report.InvalidReportRangeException;
+import com.store.exception.sale.IdempotencyKeyReusedException;
+import com.store.exception.sale.InvalidIdempotencyKeyException;
 import com.store.exception.sale.InvalidSaleStateException;
-import com.store.exception.sale.MaxSalesPerDayException;
+import com.store.exception.sale.SaleBatchTooLargeException;
+import com.store.exception.sale.SaleLimitExceededException;
 import com.store.exception.sale.SaleNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -19,6 +30,13 @@ import java.time.Instant;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler(CustomerAlreadyExistsException.class)
     public ResponseEntity<ApiError> handleCustomerAlreadyExist(CustomerAlreadyExistsException ex) {
         ApiError error = new ApiError(
@@ -28,6 +46,7 @@ public class GlobalExceptionHandler {
                 Instant.now()
         );
 
+        countError(ex, error);
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
@@ -40,6 +59,7 @@ public class GlobalExceptionHandler {
                 Instant.now()
         );
 
+        countError(ex, error);
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
@@ -52,6 +72,7 @@ public class GlobalExceptionHandler {
                 Instant.now()
         );
 
+        countError(ex, error);
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
@@ -64,9 +85,23 @@ public class GlobalExceptionHandler {
                 Instant.now()
         );
 
+        countError(ex, error);
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(InvalidReorderThresholdException.class)
+    public ResponseEntity<ApiError> handleInvalidReorderThreshold(InvalidReorderThresholdException ex) {
+        ApiError error = new ApiError(
+                HttpStatus.BAD_REQUEST.value(),
+                "INVALID_REORDER_THRESHOLD",
+                ex.getMessage(),
+                Instant.now()
+        );
+
+        countError(ex, error);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(ProductNotFoundException.class)
     public ResponseEntity<ApiError> handleProductNotFound(ProductNotFoundException ex) {
         ApiError error = new ApiError(
@@ -76,6 +111,7 @@ public class GlobalExceptionHandler {
                 Instant.now()
         );
 
+        countError(ex, error);
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
@@ -88,11 +124,12 @@ public class GlobalExceptionHandler {
                 Instant.now()
         );
 
+        countError(ex, error);
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
-    @ExceptionHandler(MaxSalesPerDayException.class)
-    public ResponseEntity<ApiError> handleMaxSalesPerDay(MaxSalesPerDayException ex) {
+    @ExceptionHandler(SaleLimitExceededException.class)
+    public ResponseEntity<ApiError> handleSaleLimitExceeded(SaleLimitExceededException ex) {
         ApiError error = new ApiError(
                 HttpStatus.UNPROCESSABLE_ENTITY.value(),
                 "MAX_SALES_EXCEEDED",
@@ -100,9 +137,49 @@ public class GlobalExceptionHandler {
                 Instant.now()
         );
 
+        countError(ex, error);
         return new ResponseEntity<>(error, HttpStatus.UNPROCESSABLE_ENTITY);
     }
 
+    @ExceptionHandler(SaleBatchTooLargeException.class)
+    public ResponseEntity<ApiError> handleSaleBatchTooLarge(SaleBatchTooLargeException ex) {
+        ApiError error = new ApiError(
+                HttpStatus.BAD_REQUEST.value(),
+                "SALE_BATCH_TOO_LARGE",
+                ex.getMessage(),
+                Instant.now()
+        );
+
+        countError(ex, error);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ApiError> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        ApiError error = new ApiError(
+                HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                "IDEMPOTENCY_KEY_REUSED",
+                ex.getMessage(),
+                Instant.now()
+        );
+
+        countError(ex, error);
+        return new ResponseEntity<>(error, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<ApiError> handleInvalidIdempotencyKey(InvalidIdempotencyKeyException ex) {
+        ApiError error = new ApiError(
+                HttpStatus.BAD_REQUEST.value(),
+                "INVALID_IDEMPOTENCY_KEY",
+                ex.getMessage(),
+                Instant.now()
+        );
+
+        countError(ex, error);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(SaleNotFoundException.class)
     public ResponseEntity<ApiError> handleSaleNotFound(SaleNotFoundException ex) {
         ApiError error = new ApiError(
@@ -112,6 +189,80 @@ public class GlobalExceptionHandler {
                 Instant.now()
         );
 
+        countError(ex, error);
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleConcurrentUpdate(OptimisticLockingFailureException ex) {
+        ApiError error = new ApiError(
+                HttpStatus.CONFLICT.value(),
+                "CONCURRENT_UPDATE",
+                "The resource was modified by another request, please retry",
+                Instant.now()
+        );
+
+        countError(ex, error);
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InvalidReportRangeException.class)
+    public ResponseEntity<ApiError> handleInvalidReportRange(InvalidReportRangeException ex) {
+        ApiError error = new ApiError(
+                HttpStatus.BAD_REQUEST.value(),
+                "INVALID_REPORT_RANGE",
+                ex.getMessage(),
+                Instant.now()
+        );
+
+        countError(ex, error);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(CsvImportJobNotFoundException.class)
+    public ResponseEntity<ApiError> handleCsvImportJobNotFound(CsvImportJobNotFoundException ex) {
+        ApiError error = new ApiError(
+                HttpStatus.NOT_FOUND.value(),
+                "IMPORT_JOB_NOT_FOUND",
+                ex.getMessage(),
+                Instant.now()
+        );
+
+        countError(ex, error);
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(CsvImportRejectedException.class)
+    public ResponseEntity<ApiError> handleCsvImportRejected(CsvImportRejectedException ex) {
+        ApiError error = new ApiError(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "IMPORT_QUEUE_FULL",
+                ex.getMessage(),
+                Instant.now()
+        );
+
+        countError(ex, error);
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(InvalidCsvImportFileException.class)
+    public ResponseEntity<ApiError> handleInvalidCsvImportFile(InvalidCsvImportFileException ex) {
+        ApiError error = new ApiError(
+                HttpStatus.BAD_REQUEST.value(),
+                "INVALID_IMPORT_FILE",
+                ex.getMessage(),
+                Instant.now()
+        );
+
+        countError(ex, error);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    // One counter per exception type and error code, so rejected checkouts are visible next to the latency timers
+    private void countError(Exception ex, ApiError error) {
+        meterRegistry.counter("store.api.errors",
+                "exception", ex.getClass().getSimpleName(),
+                "code", error.error()
+        ).increment();
+    }
 }
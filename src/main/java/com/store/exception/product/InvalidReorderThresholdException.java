@@ -0,0 +1,8 @@
+package com.store.exception.product;
+
+public class InvalidReorderThresholdException extends RuntimeException {
+
+    public InvalidReorderThresholdException(String message) {
+        super(message);
+    }
+}
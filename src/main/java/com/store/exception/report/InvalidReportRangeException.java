@@ -0,0 +1,8 @@
+package com.store.exception.report;
+
+public class InvalidReportRangeException extends RuntimeException {
+
+    public InvalidReportRangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.store.exception.sale;
+
+public class SaleBatchTooLargeException extends RuntimeException {
+
+    public SaleBatchTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.store.exception.sale;
+
+public class SaleLimitExceededException extends RuntimeException {
+
+    public SaleLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,40 @@
+package com.store.metrics;
+
+import com.store.config.SqlTrackingProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Slow statements are logged by a single background thread; when it falls behind, entries are dropped
+// instead of making the request threads wait for the log
+@Component
+public class SlowQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public SlowQueryLog(SqlTrackingProperties sqlTrackingProperties) {
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(sqlTrackingProperties.slowQueryQueueCapacity()),
+                Thread.ofPlatform().name("slow-query-log").daemon().factory(),
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public void submit(String sql, int batchSize, long elapsedNanos) {
+        executor.execute(() -> log.warn("Slow query: {} ms, batch size {}: {}",
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), batchSize, sql));
+    }
+}
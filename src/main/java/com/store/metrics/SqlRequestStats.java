@@ -0,0 +1,22 @@
+package com.store.metrics;
+
+// Statements executed and JDBC time spent so far by one HTTP request. Touched by one thread at a time: the request
+// thread, then the async thread if the request goes async, each handing over through the executor or the dispatch
+public final class SqlRequestStats {
+
+    private int statements;
+    private long jdbcNanos;
+
+    void add(long elapsedNanos) {
+        statements++;
+        jdbcNanos += elapsedNanos;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long jdbcNanos() {
+        return jdbcNanos;
+    }
+}
@@ -0,0 +1,35 @@
+package com.store.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+// Binds the request's stats to the async thread while a StreamingResponseBody or Callable runs, so the statements
+// it issues are counted against the route instead of being lost with no request open on that thread
+@Component
+public class SqlStatementAsyncInterceptor implements CallableProcessingInterceptor {
+
+    private final SqlStatementTracker sqlStatementTracker;
+
+    @Autowired
+    public SqlStatementAsyncInterceptor(SqlStatementTracker sqlStatementTracker) {
+        this.sqlStatementTracker = sqlStatementTracker;
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        Object stats = request.getAttribute(SqlStatementFilter.STATS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if(stats instanceof SqlRequestStats requestStats) {
+            sqlStatementTracker.resume(requestStats);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        sqlStatementTracker.end();
+    }
+}
@@ -0,0 +1,82 @@
+package com.store.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Records statements and JDBC time of each request per route, so an N+1 shows up as a shifted distribution.
+// A request that goes async (StreamingResponseBody, Callable) keeps its stats in a request attribute: the async part
+// adds to them through SqlStatementAsyncInterceptor and the async dispatch that follows records the whole request
+@Component
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    static final String STATS_ATTRIBUTE = SqlStatementFilter.class.getName() + ".stats";
+
+    private final SqlStatementTracker sqlStatementTracker;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public SqlStatementFilter(SqlStatementTracker sqlStatementTracker, MeterRegistry meterRegistry) {
+        this.sqlStatementTracker = sqlStatementTracker;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = (SqlRequestStats) request.getAttribute(STATS_ATTRIBUTE);
+        if(stats == null) {
+            stats = sqlStatementTracker.begin();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        } else {
+            sqlStatementTracker.resume(stats);
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            sqlStatementTracker.end();
+
+            // The async part has not run yet; its dispatch comes back through here once it completes
+            if(!request.isAsyncStarted()) {
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlRequestStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+        DistributionSummary.builder("store.http.db.statements")
+                .description("SQL statements executed per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.statements());
+        Timer.builder("store.http.db.time")
+                .description("JDBC time spent per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.jdbcNanos(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,48 @@
+package com.store.metrics;
+
+import com.store.config.SqlTrackingProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+// Headers have to be set before the body is written, which is the last point the request's SQL work is known
+@RestControllerAdvice
+public class SqlStatementHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENTS_HEADER = "X-Db-Statements";
+    public static final String TIME_HEADER = "X-Db-Time-Ms";
+
+    private final SqlStatementTracker sqlStatementTracker;
+    private final SqlTrackingProperties sqlTrackingProperties;
+
+    @Autowired
+    public SqlStatementHeaderAdvice(SqlStatementTracker sqlStatementTracker, SqlTrackingProperties sqlTrackingProperties) {
+        this.sqlStatementTracker = sqlStatementTracker;
+        this.sqlTrackingProperties = sqlTrackingProperties;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return sqlTrackingProperties.responseHeaders();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlRequestStats stats = sqlStatementTracker.current();
+        if(stats != null) {
+            response.getHeaders().set(STATEMENTS_HEADER, String.valueOf(stats.statements()));
+            response.getHeaders().set(TIME_HEADER, String.format(Locale.ROOT, "%.3f", stats.jdbcNanos() / 1_000_000.0));
+        }
+
+        return body;
+    }
+}
@@ -0,0 +1,67 @@
+package com.store.metrics;
+
+import com.store.config.SqlTrackingProperties;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Sees every statement that goes through the DataSource proxy: adds it to the open request, if the thread has one,
+// and hands anything slower than the threshold to the slow-query log. Nothing is printed on the calling thread
+@Component
+public class SqlStatementTracker implements QueryExecutionListener {
+
+    private static final String STARTED_AT = "startedAt";
+
+    private final ThreadLocal<SqlRequestStats> current = new ThreadLocal<>();
+    private final SlowQueryLog slowQueryLog;
+    private final long slowQueryThresholdNanos;
+
+    @Autowired
+    public SqlStatementTracker(SlowQueryLog slowQueryLog, SqlTrackingProperties sqlTrackingProperties) {
+        this.slowQueryLog = slowQueryLog;
+        this.slowQueryThresholdNanos = sqlTrackingProperties.slowQueryThreshold().toNanos();
+    }
+
+    public SqlRequestStats begin() {
+        SqlRequestStats stats = new SqlRequestStats();
+        current.set(stats);
+
+        return stats;
+    }
+
+    // Carries a request's stats onto the thread that runs its async part
+    public void resume(SqlRequestStats stats) {
+        current.set(stats);
+    }
+
+    public SqlRequestStats current() {
+        return current.get();
+    }
+
+    public void end() {
+        current.remove();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedNanos = System.nanoTime() - execInfo.getCustomValue(STARTED_AT, Long.class);
+
+        SqlRequestStats stats = current.get();
+        if(stats != null) {
+            stats.add(elapsedNanos);
+        }
+
+        if(elapsedNanos >= slowQueryThresholdNanos && !queryInfoList.isEmpty()) {
+            slowQueryLog.submit(queryInfoList.get(0).getQuery(), execInfo.isBatch() ? execInfo.getBatchSize() : 1, elapsedNanos);
+        }
+    }
+}
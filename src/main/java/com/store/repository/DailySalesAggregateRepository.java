@@ -0,0 +1,62 @@
+package com.store.repository;
+
+import com.store.dto.report.DailyProductSalesDTO;
+import com.store.dto.report.DailySalesReportDTO;
+import com.store.entity.DailySalesAggregate;
+import com.store.entity.DailySalesAggregateId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface DailySalesAggregateRepository extends JpaRepository<DailySalesAggregate, DailySalesAggregateId> {
+
+    String SALES_OF_AGGREGATE = "FROM SaleDetail d WHERE d.sale.id IN :saleIds " +
+            "AND d.product.id = a.id.productId AND d.sale.saleDate = a.id.saleDate";
+
+    // Takes the lines of the given sales back out of their day and product rows in one statement
+    @Modifying
+    @Query("UPDATE DailySalesAggregate a SET " +
+            "a.units = a.units - (SELECT SUM(d.quantity) " + SALES_OF_AGGREGATE + "), " +
+            "a.revenue = a.revenue - (SELECT SUM(d.price * d.quantity) " + SALES_OF_AGGREGATE + "), " +
+            "a.saleCount = a.saleCount - (SELECT COUNT(DISTINCT d.sale.id) " + SALES_OF_AGGREGATE + ") " +
+            "WHERE EXISTS (SELECT 1 " + SALES_OF_AGGREGATE + ")")
+    int subtractSales(@Param("saleIds") Collection<Long> saleIds);
+
+    // Locks the rows of the range and, on MySQL, the gaps between them, so no upsert or subtraction can land in it
+    @Query(value = "SELECT product_id FROM daily_sales_aggregate WHERE sale_date BETWEEN :from AND :to " +
+            "ORDER BY sale_date, product_id FOR UPDATE", nativeQuery = true)
+    List<Long> lockBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM DailySalesAggregate a WHERE a.id.saleDate BETWEEN :from AND :to")
+    int deleteBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.store.dto.report.DailyProductSalesDTO(s.saleDate, d.product.id, SUM(d.quantity), " +
+            "SUM(d.price * d.quantity), COUNT(DISTINCT s.id)) " +
+            "FROM SaleDetail d JOIN d.sale s " +
+            "WHERE s.status = com.store.enums.SaleStatus.ACTIVE AND s.saleDate BETWEEN :from AND :to " +
+            "GROUP BY s.saleDate, d.product.id")
+    List<DailyProductSalesDTO> computeFromSalesBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.store.dto.report.DailySalesReportDTO(a.id.saleDate, SUM(a.units), SUM(a.revenue)) " +
+            "FROM DailySalesAggregate a WHERE a.id.saleDate BETWEEN :from AND :to " +
+            "GROUP BY a.id.saleDate ORDER BY a.id.saleDate")
+    List<DailySalesReportDTO> findDailyTotals(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.store.dto.report.DailyProductSalesDTO(a.id.saleDate, a.id.productId, a.units, a.revenue, a.saleCount) " +
+            "FROM DailySalesAggregate a WHERE a.id.saleDate BETWEEN :from AND :to " +
+            "ORDER BY a.id.saleDate, a.id.productId")
+    List<DailyProductSalesDTO> findProductRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.store.dto.report.DailyProductSalesDTO(a.id.saleDate, a.id.productId, a.units, a.revenue, a.saleCount) " +
+            "FROM DailySalesAggregate a WHERE a.id.productId = :productId AND a.id.saleDate BETWEEN :from AND :to " +
+            "ORDER BY a.id.saleDate")
+    List<DailyProductSalesDTO> findProductRows(@Param("productId") Long productId,
+                                               @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+}
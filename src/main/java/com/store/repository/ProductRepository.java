@@ -1,10 +1,16 @@
 package com.store.repository;
 
+import com.store.dto.product.StockLevelDTO;
 import com.store.entity.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -12,4 +18,37 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.name = :name AND p.brand = :brand")
     Optional<Product> findByNameAndBrand(@Param("name") String name, @Param("brand") String brand);
 
+    @Query("SELECT p FROM Product p WHERE p.name IN :names")
+    List<Product> findAllByNameIn(@Param("names") Collection<String> names);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Gives back the quantities of every line of the given sales, summed per product, in one statement
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + " +
+            "(SELECT SUM(d.quantity) FROM SaleDetail d WHERE d.product = p AND d.sale.id IN :saleIds), " +
+            "p.version = p.version + 1 " +
+            "WHERE p.id IN (SELECT d.product.id FROM SaleDetail d WHERE d.sale.id IN :saleIds)")
+    int restoreStock(@Param("saleIds") Collection<Long> saleIds);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.reorderThreshold = :threshold WHERE p.id = :id")
+    int updateReorderThreshold(@Param("id") Long id, @Param("threshold") int threshold);
+
+    @Query("SELECT new com.store.dto.product.StockLevelDTO(p.id, p.stock, p.reorderThreshold) FROM Product p WHERE p.id = :id")
+    Optional<StockLevelDTO> findStockLevelById(@Param("id") Long id);
+
+    // Only products with alerting on are read, so the low-stock index never holds the whole catalog
+    @Query("SELECT new com.store.dto.product.StockLevelDTO(p.id, p.stock, p.reorderThreshold) FROM Product p " +
+            "WHERE p.reorderThreshold > 0")
+    List<StockLevelDTO> findMonitoredStockLevels();
+
+    // Locks the rows in id order and reads their committed stock, bypassing entities already in the persistence context
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.store.dto.product.StockLevelDTO(p.id, p.stock, p.reorderThreshold) FROM Product p " +
+            "WHERE p.id IN :ids ORDER BY p.id")
+    List<StockLevelDTO> findStockLevelsForUpdate(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,37 @@
+package com.store.repository;
+
+import com.store.entity.SaleLimitCounter;
+import com.store.entity.SaleLimitCounterId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface SaleLimitCounterRepository extends JpaRepository<SaleLimitCounter, SaleLimitCounterId> {
+
+    @Modifying
+    @Query("UPDATE SaleLimitCounter c SET c.used = c.used + 1 " +
+            "WHERE c.id.policy = :policy AND c.id.subject = :subject AND c.id.windowStart = :windowStart AND c.used < :limit")
+    int tryIncrement(@Param("policy") String policy, @Param("subject") String subject,
+                     @Param("windowStart") LocalDateTime windowStart, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE SaleLimitCounter c SET c.used = c.used - 1 " +
+            "WHERE c.id.policy = :policy AND c.id.subject = :subject AND c.id.windowStart = :windowStart AND c.used > 0")
+    int decrement(@Param("policy") String policy, @Param("subject") String subject,
+                  @Param("windowStart") LocalDateTime windowStart);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO sale_limit_counters (policy, subject, window_start, window_end, used) " +
+            "VALUES (:policy, :subject, :windowStart, :windowEnd, :used)", nativeQuery = true)
+    int insertIfAbsent(@Param("policy") String policy, @Param("subject") String subject,
+                       @Param("windowStart") LocalDateTime windowStart, @Param("windowEnd") LocalDateTime windowEnd,
+                       @Param("used") int used);
+
+    @Modifying
+    @Query("DELETE FROM SaleLimitCounter c WHERE c.windowEnd <= :now")
+    int deleteClosedWindows(@Param("now") LocalDateTime now);
+
+}
@@ -1,15 +1,78 @@
 package com.store.repository;
 
+import com.store.dto.sale.SaleRowDTO;
 import com.store.entity.Sale;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface SaleRepository extends JpaRepository<Sale, Long> {
 
-    @Query("SELECT COUNT(s) FROM Sale s WHERE s.customer.id = :customerId AND s.saleDate = :saleDate")
-    int countSalesByCustomerAndDate(@Param("customerId") Long customerId, @Param("saleDate")LocalDate saleDate);
+    int STREAM_FETCH_SIZE = 500;
+
+    String SELECT_SALE_ROWS = "SELECT new com.store.dto.sale.SaleRowDTO(" +
+            "s.id, s.saleDate, s.totalAmount, s.status, c.id, c.name, c.lastName, c.email, " +
+            "p.id, p.name, d.quantity, d.price) " +
+            "FROM Sale s JOIN s.customer c LEFT JOIN s.saleDetails d LEFT JOIN d.product p ";
+
+    @Query("SELECT COUNT(s) FROM Sale s WHERE s.customer.id = :customerId " +
+            "AND s.saleDate >= :from AND s.saleDate < :to AND s.status <> com.store.enums.SaleStatus.CANCELED")
+    int countActiveSalesByCustomerBetween(@Param("customerId") Long customerId,
+                                          @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT COUNT(DISTINCT s) FROM Sale s JOIN s.saleDetails d WHERE d.product.id = :productId " +
+            "AND s.saleDate >= :from AND s.saleDate < :to AND s.status <> com.store.enums.SaleStatus.CANCELED")
+    int countActiveSalesWithProductBetween(@Param("productId") Long productId,
+                                           @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT COUNT(DISTINCT s) FROM Sale s JOIN s.saleDetails d WHERE s.customer.id = :customerId " +
+            "AND d.product.id = :productId AND s.saleDate >= :from AND s.saleDate < :to " +
+            "AND s.status <> com.store.enums.SaleStatus.CANCELED")
+    int countActiveSalesByCustomerWithProductBetween(@Param("customerId") Long customerId, @Param("productId") Long productId,
+                                                     @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @EntityGraph(attributePaths = {"customer", "saleDetails", "saleDetails.product"})
+    @Query("SELECT s FROM Sale s WHERE s.id = :id")
+    Optional<Sale> findWithDetailsById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Sale s WHERE s.id IN :ids ORDER BY s.id")
+    List<Sale> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Sale s SET s.status = com.store.enums.SaleStatus.CANCELED " +
+            "WHERE s.id IN :ids AND s.status = com.store.enums.SaleStatus.ACTIVE")
+    int cancelActive(@Param("ids") Collection<Long> ids);
+
+    // Ids are paged first: a row limit on the joined detail rows would cut sales in half
+    @Query("SELECT s.id FROM Sale s WHERE s.id > :afterId ORDER BY s.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(SELECT_SALE_ROWS + "WHERE s.id = :id ORDER BY d.id")
+    List<SaleRowDTO> findRowsById(@Param("id") Long id);
+
+    @Query(SELECT_SALE_ROWS + "ORDER BY s.id, d.id")
+    List<SaleRowDTO> findAllRows();
+
+    @Query(SELECT_SALE_ROWS + "WHERE s.id IN :ids ORDER BY s.id, d.id")
+    List<SaleRowDTO> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query(SELECT_SALE_ROWS + "ORDER BY s.id, d.id")
+    Stream<SaleRowDTO> streamAllRows();
 
 }
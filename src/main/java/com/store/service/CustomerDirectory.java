@@ -0,0 +1,105 @@
+package com.store.service;
+
+import com.store.dto.customer.CustomerResponseDTO;
+import com.store.entity.Customer;
+import com.store.exception.customer.CustomerNotFoundException;
+import com.store.mapper.CustomerMapper;
+import com.store.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Read-through customer cache with two keys: id -> customer and email -> id.
+// Only hits are cached, so an email that is free today is looked up again on the next create
+@Component
+public class CustomerDirectory {
+
+    public static final String CUSTOMERS_CACHE = "customers";
+    public static final String EMAILS_CACHE = "customerEmails";
+
+    private final CustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+    private final Cache customers;
+    private final Cache emails;
+
+    @Autowired
+    public CustomerDirectory(CustomerRepository customerRepository, CustomerMapper customerMapper, CacheManager cacheManager) {
+        this.customerRepository = customerRepository;
+        this.customerMapper = customerMapper;
+        this.customers = cacheManager.getCache(CUSTOMERS_CACHE);
+        this.emails = cacheManager.getCache(EMAILS_CACHE);
+    }
+
+    public CustomerResponseDTO getCustomer(Long id) {
+        CustomerResponseDTO cached = customers.get(id, CustomerResponseDTO.class);
+        if(cached != null) {
+            return cached;
+        }
+
+        Customer customer = customerRepository.findById(id)
+                .orElseThrow(() -> new CustomerNotFoundException("Customer with id " + id + " not found"));
+
+        return put(customer);
+    }
+
+    // Unknown ids are left out of the result; misses are loaded with one query
+    public Map<Long, CustomerResponseDTO> getCustomers(Collection<Long> ids) {
+        Map<Long, CustomerResponseDTO> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+
+        for(Long id : ids) {
+            CustomerResponseDTO cached = customers.get(id, CustomerResponseDTO.class);
+
+            if(cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        if(!misses.isEmpty()) {
+            for(Customer customer : customerRepository.findAllById(misses)) {
+                found.put(customer.getId(), put(customer));
+            }
+        }
+
+        return found;
+    }
+
+    public Optional<Long> findIdByEmail(String email) {
+        Long cached = emails.get(email, Long.class);
+        if(cached != null) {
+            return Optional.of(cached);
+        }
+
+        return customerRepository.getCustomerByEmail(email)
+                .map(customer -> put(customer).id());
+    }
+
+    public void evictAfterCommit(Long id, Collection<String> customerEmails) {
+        List<String> evictedEmails = List.copyOf(customerEmails);
+
+        AfterCommit.run(() -> evict(id, evictedEmails));
+    }
+
+    private CustomerResponseDTO put(Customer customer) {
+        CustomerResponseDTO response = customerMapper.toCustomerResponse(customer);
+        customers.put(customer.getId(), response);
+        emails.put(customer.getEmail(), customer.getId());
+
+        return response;
+    }
+
+    private void evict(Long id, List<String> customerEmails) {
+        customers.evict(id);
+        customerEmails.forEach(emails::evict);
+    }
+}
@@ -7,30 +7,36 @@ import com.store.exception.customer.CustomerAlreadyExistsException;
 import com.store.exception.customer.CustomerNotFoundException;
 import com.store.mapper.CustomerMapper;
 import com.store.repository.CustomerRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "store.service", histogram = true)
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final CustomerDirectory customerDirectory;
 
     @Autowired
-    public CustomerService(CustomerRepository customerRepository, CustomerMapper customerMapper) {
+    public CustomerService(CustomerRepository customerRepository, CustomerMapper customerMapper, CustomerDirectory customerDirectory) {
         this.customerRepository = customerRepository;
         this.customerMapper = customerMapper;
+        this.customerDirectory = customerDirectory;
     }
 
     public CustomerResponseDTO getCustomerById(Long id) {
-        Customer customer = customerRepository.findById(id)
-                .orElseThrow(() -> new CustomerNotFoundException("Customer with id " + id + " not found"));
-
-        return customerMapper.toCustomerResponse(customer);
+        return customerDirectory.getCustomer(id);
     }
 
     public List<CustomerResponseDTO> getAllCustomers() {
@@ -52,8 +58,8 @@ public class CustomerService {
 
     @Transactional
     public CustomerResponseDTO createCustomer(CustomerRequestDTO customerRequestDTO) {
-        customerRepository.getCustomerByEmail(customerRequestDTO.email())
-                .ifPresent(customer -> {
+        customerDirectory.findIdByEmail(customerRequestDTO.email())
+                .ifPresent(existingId -> {
                     throw new CustomerAlreadyExistsException("Customer with email " + customerRequestDTO.email() + " already exists");
                 });
 
@@ -62,7 +68,12 @@ public class CustomerService {
         customer.setLastName(customerRequestDTO.lastName());
         customer.setEmail(customerRequestDTO.email());
 
-        customer = customerRepository.save(customer);
+        // The unique index on email settles concurrent creates that both passed the lookup
+        try {
+            customer = customerRepository.save(customer);
+        } catch(DataIntegrityViolationException e) {
+            throw new CustomerAlreadyExistsException("Customer with email " + customerRequestDTO.email() + " already exists");
+        }
 
         return customerMapper.toCustomerResponse(customer);
     }
@@ -72,11 +83,21 @@ public class CustomerService {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new CustomerNotFoundException("Customer with id " + id + " not found"));
 
+        String previousEmail = customer.getEmail();
         customer.setName(customerRequestDTO.name());
         customer.setLastName(customerRequestDTO.lastName());
         customer.setEmail(customerRequestDTO.email());
 
-        customerRepository.save(customer);
+        try {
+            customerRepository.saveAndFlush(customer);
+        } catch(DataIntegrityViolationException e) {
+            throw new CustomerAlreadyExistsException("Customer with email " + customerRequestDTO.email() + " already exists");
+        }
+        // The email is usually unchanged, and may be missing from the request
+        Set<String> affectedEmails = Stream.of(previousEmail, customerRequestDTO.email())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        customerDirectory.evictAfterCommit(id, affectedEmails);
 
         return customerMapper.toCustomerResponse(customer);
     }
@@ -86,5 +107,6 @@ public class CustomerService {
                 .orElseThrow(() -> new CustomerNotFoundException("Customer with id " + id + " not found"));
 
         customerRepository.delete(customer);
+        customerDirectory.evictAfterCommit(id, Set.of(customer.getEmail()));
     }
 }
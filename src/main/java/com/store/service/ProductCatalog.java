@@ -0,0 +1,103 @@
+package com.store.service;
+
+import com.store.dto.product.ProductResponseDTO;
+import com.store.entity.Product;
+import com.store.exception.product.ProductNotFoundException;
+import com.store.mapper.ProductMapper;
+import com.store.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Read-through cache of product responses. Every write that touches a product, stock included,
+// evicts it once the writing transaction commits so readers never repopulate the cache from uncommitted state.
+// Each eviction is stamped, so a load that read the row before a later eviction does not put its stale copy back
+@Component
+public class ProductCatalog {
+
+    public static final String CACHE_NAME = "products";
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final Cache cache;
+    private final AtomicLong evictions = new AtomicLong();
+    // One stamp per product ever evicted, so bounded by the catalog size
+    private final Map<Long, Long> evictedAt = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProductCatalog(ProductRepository productRepository, ProductMapper productMapper, CacheManager cacheManager) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    public ProductResponseDTO getProduct(Long id) {
+        ProductResponseDTO product = getProducts(List.of(id)).get(id);
+
+        if(product == null) {
+            throw new ProductNotFoundException("Product with id " + id + " not found");
+        }
+
+        return product;
+    }
+
+    // Unknown ids are left out of the result; misses are loaded with one query
+    public Map<Long, ProductResponseDTO> getProducts(Collection<Long> ids) {
+        Map<Long, ProductResponseDTO> products = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+
+        for(Long id : ids) {
+            ProductResponseDTO cached = cache.get(id, ProductResponseDTO.class);
+
+            if(cached != null) {
+                products.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        if(!misses.isEmpty()) {
+            long loadStartedAt = evictions.get();
+
+            for(Product product : productRepository.findAllById(misses)) {
+                ProductResponseDTO loaded = productMapper.toProductResponse(product);
+                putUnlessEvictedSince(product.getId(), loaded, loadStartedAt);
+                products.put(product.getId(), loaded);
+            }
+        }
+
+        return products;
+    }
+
+    public void evictAfterCommit(Collection<Long> ids) {
+        List<Long> evicted = List.copyOf(ids);
+
+        AfterCommit.run(() -> evicted.forEach(this::evict));
+    }
+
+    // compute holds the product's map entry, so a put and an eviction of the same product never interleave
+    private void putUnlessEvictedSince(Long id, ProductResponseDTO loaded, long loadStartedAt) {
+        evictedAt.compute(id, (key, evictedStamp) -> {
+            if(evictedStamp == null || evictedStamp <= loadStartedAt) {
+                cache.put(id, loaded);
+            }
+            return evictedStamp;
+        });
+    }
+
+    private void evict(Long id) {
+        evictedAt.compute(id, (key, evictedStamp) -> {
+            cache.evict(id);
+            return evictions.incrementAndGet();
+        });
+    }
+}
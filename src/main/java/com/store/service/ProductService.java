@@ -1,38 +1,54 @@
 package com.store.service;
 
+import com.store.config.LowStockProperties;
+import com.store.dto.product.LowStockProductResponseDTO;
 import com.store.dto.product.ProductRequestDTO;
 import com.store.dto.product.ProductResponseDTO;
+import com.store.dto.product.ReorderThresholdRequestDTO;
+import com.store.dto.product.StockLevelDTO;
 import com.store.entity.Product;
+import com.store.exception.product.InvalidReorderThresholdException;
 import com.store.exception.product.ProductAlreadyExistsException;
 import com.store.exception.product.ProductNotFoundException;
 import com.store.mapper.ProductMapper;
 import com.store.repository.ProductRepository;
+import com.store.service.stock.LowStockIndex;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
+@Timed(value = "store.service", histogram = true)
 public class ProductService {
 
     private final ProductRepository productRepository;
 
     private final ProductMapper productMapper;
 
+    private final ProductCatalog productCatalog;
+
+    private final LowStockIndex lowStockIndex;
+
+    private final LowStockProperties lowStockProperties;
+
     @Autowired
-    public ProductService(ProductRepository productRepository, ProductMapper productMapper) {
+    public ProductService(ProductRepository productRepository, ProductMapper productMapper, ProductCatalog productCatalog,
+                          LowStockIndex lowStockIndex, LowStockProperties lowStockProperties) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
+        this.productCatalog = productCatalog;
+        this.lowStockIndex = lowStockIndex;
+        this.lowStockProperties = lowStockProperties;
     }
 
     public ProductResponseDTO getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException("Product with id " + id + " not found"));
-
-        return productMapper.toProductResponse(product);
+        return productCatalog.getProduct(id);
     }
 
     public List<ProductResponseDTO> getAllProducts() {
@@ -79,6 +95,8 @@ public class ProductService {
         productMapper.updateProductFromDTO(productRequestDTO, product);
 
         product = productRepository.save(product);
+        productCatalog.evictAfterCommit(List.of(id));
+        lowStockIndex.putAfterCommit(List.of(new StockLevelDTO(id, product.getStock(), product.getReorderThreshold())));
 
         return productMapper.toProductResponse(product);
     }
@@ -88,5 +106,43 @@ public class ProductService {
                 .orElseThrow(() -> new ProductNotFoundException("Product with id " + id + " does not exists"));
 
         productRepository.delete(product);
+        productCatalog.evictAfterCommit(List.of(id));
+        lowStockIndex.removeAfterCommit(id);
+    }
+
+    @Transactional
+    public StockLevelDTO updateReorderThreshold(Long id, ReorderThresholdRequestDTO thresholdRequest) {
+        if(thresholdRequest.reorderThreshold() < 0) {
+            throw new InvalidReorderThresholdException("The reorder threshold cannot be negative");
+        }
+
+        if(productRepository.updateReorderThreshold(id, thresholdRequest.reorderThreshold()) == 0) {
+            throw new ProductNotFoundException("Product with id " + id + " does not exists");
+        }
+
+        StockLevelDTO level = productRepository.findStockLevelById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product with id " + id + " does not exists"));
+        lowStockIndex.putAfterCommit(List.of(level));
+
+        return level;
+    }
+
+    // Served from the low-stock index and the product cache: cost grows with the number returned, not the catalog
+    public List<LowStockProductResponseDTO> getLowStockProducts(Integer limit) {
+        int size = limit == null ? lowStockProperties.defaultLimit() : Math.clamp(limit, 1, lowStockProperties.maxLimit());
+        List<StockLevelDTO> levels = lowStockIndex.lowStock(size);
+
+        Map<Long, ProductResponseDTO> products = productCatalog.getProducts(levels.stream().map(StockLevelDTO::productId).toList());
+
+        List<LowStockProductResponseDTO> lowStockProducts = new ArrayList<>(levels.size());
+        for(StockLevelDTO level : levels) {
+            ProductResponseDTO product = products.get(level.productId());
+            if(product != null) {
+                lowStockProducts.add(new LowStockProductResponseDTO(product.id(), product.name(), product.brand(),
+                        level.stock(), level.reorderThreshold()));
+            }
+        }
+
+        return lowStockProducts;
     }
 }
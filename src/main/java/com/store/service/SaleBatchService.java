@@ -0,0 +1,376 @@
+package com.store.service;
+
+import com.store.config.SaleBatchProperties;
+import com.store.dto.customer.CustomerResponseDTO;
+import com.store.dto.product.ProductResponseDTO;
+import com.store.dto.product.StockLevelDTO;
+import com.store.dto.sale.SaleBatchItemResponseDTO;
+import com.store.dto.sale.SaleBatchResponseDTO;
+import com.store.dto.sale.SaleCancelBatchResponseDTO;
+import com.store.dto.sale.SaleCancelItemResponseDTO;
+import com.store.dto.sale.SaleRequestDTO;
+import com.store.dto.sale.SaleResponseDTO;
+import com.store.dto.saleDetail.SaleDetailRequestDTO;
+import com.store.dto.saleDetail.SaleDetailResponseDTO;
+import com.store.entity.Product;
+import com.store.entity.Sale;
+import com.store.entity.SaleDetail;
+import com.store.enums.SaleStatus;
+import com.store.exception.sale.SaleBatchTooLargeException;
+import com.store.exception.sale.SaleLimitExceededException;
+import com.store.mapper.ProductMapper;
+import com.store.repository.CustomerRepository;
+import com.store.repository.ProductRepository;
+import com.store.repository.SaleRepository;
+import com.store.service.limit.SaleLimitService;
+import com.store.service.limit.SalePermit;
+import com.store.service.ranking.TopSellingTracker;
+import com.store.service.report.DailySalesAggregator;
+import com.store.service.stock.LowStockIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+// Creates or cancels many sales in one transaction: customers and products are resolved once for the whole batch,
+// stock is written as one aggregated delta per product and sales are inserted through JDBC batches.
+// A sale that cannot be placed or canceled is reported as failed without affecting the others
+@Service
+@Timed(value = "store.service", histogram = true)
+public class SaleBatchService {
+
+    private final SaleRepository saleRepository;
+    private final CustomerRepository customerRepository;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final CustomerDirectory customerDirectory;
+    private final ProductCatalog productCatalog;
+    private final StockReservationService stockReservationService;
+    private final SaleLimitService saleLimitService;
+    private final SaleBatchProperties saleBatchProperties;
+    private final DailySalesAggregator dailySalesAggregator;
+    private final TopSellingTracker topSellingTracker;
+    private final LowStockIndex lowStockIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public SaleBatchService(
+            SaleRepository saleRepository,
+            CustomerRepository customerRepository,
+            ProductRepository productRepository,
+            ProductMapper productMapper,
+            CustomerDirectory customerDirectory,
+            ProductCatalog productCatalog,
+            StockReservationService stockReservationService,
+            SaleLimitService saleLimitService,
+            SaleBatchProperties saleBatchProperties,
+            DailySalesAggregator dailySalesAggregator,
+            TopSellingTracker topSellingTracker,
+            LowStockIndex lowStockIndex
+    ) {
+        this.saleRepository = saleRepository;
+        this.customerRepository = customerRepository;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.customerDirectory = customerDirectory;
+        this.productCatalog = productCatalog;
+        this.stockReservationService = stockReservationService;
+        this.saleLimitService = saleLimitService;
+        this.saleBatchProperties = saleBatchProperties;
+        this.dailySalesAggregator = dailySalesAggregator;
+        this.topSellingTracker = topSellingTracker;
+        this.lowStockIndex = lowStockIndex;
+    }
+
+    @Transactional
+    public SaleBatchResponseDTO createSales(List<SaleRequestDTO> saleRequests) {
+        checkBatchSize(saleRequests.size());
+
+        List<SortedMap<Long, Integer>> requestedQuantities = new ArrayList<>(saleRequests.size());
+        Set<Long> customerIds = new HashSet<>();
+        Set<Long> productIds = new TreeSet<>();
+
+        for(SaleRequestDTO saleRequest : saleRequests) {
+            SortedMap<Long, Integer> quantities = new TreeMap<>();
+            if(saleRequest.saleDetails() != null) {
+                for(SaleDetailRequestDTO detailRequest : saleRequest.saleDetails()) {
+                    quantities.merge(detailRequest.productId(), detailRequest.quantity(), Integer::sum);
+                }
+            }
+
+            requestedQuantities.add(quantities);
+            productIds.addAll(quantities.keySet());
+            if(saleRequest.customerId() != null) {
+                customerIds.add(saleRequest.customerId());
+            }
+        }
+
+        Map<Long, CustomerResponseDTO> customers = customerDirectory.getCustomers(customerIds);
+
+        // Stock is read from the database, never from the cache, so the plan below matches the rows it writes
+        Map<Long, Product> products = new HashMap<>();
+        Map<Long, Integer> availableStock = new HashMap<>();
+        for(Product product : productRepository.findAllById(productIds)) {
+            products.put(product.getId(), product);
+            availableStock.put(product.getId(), product.getStock());
+        }
+
+        SaleBatchItemResponseDTO[] results = new SaleBatchItemResponseDTO[saleRequests.size()];
+        List<PendingSale> pendingSales = new ArrayList<>();
+
+        // Sales are placed customer by customer, in request order within a customer,
+        // so concurrent batches take limit counters in the same order
+        int[] placementOrder = IntStream.range(0, saleRequests.size())
+                .boxed()
+                .sorted(Comparator.comparing(index -> saleRequests.get(index).customerId(),
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        for(int index : placementOrder) {
+            SaleRequestDTO saleRequest = saleRequests.get(index);
+            SortedMap<Long, Integer> quantities = requestedQuantities.get(index);
+            CustomerResponseDTO customer = customers.get(saleRequest.customerId());
+
+            if(customer == null) {
+                results[index] = SaleBatchItemResponseDTO.failed(index, "CUSTOMER_NOT_FOUND",
+                        "Customer with id " + saleRequest.customerId() + " not found");
+                continue;
+            }
+
+            if(quantities.isEmpty()) {
+                results[index] = SaleBatchItemResponseDTO.failed(index, "INVALID_SALE", "A sale needs at least one detail");
+                continue;
+            }
+
+            SaleBatchItemResponseDTO stockFailure = checkStock(index, quantities, products, availableStock);
+            if(stockFailure != null) {
+                results[index] = stockFailure;
+                continue;
+            }
+
+            List<SalePermit> permits;
+            try {
+                permits = saleLimitService.reserve(customer.id(), quantities.keySet());
+            } catch(SaleLimitExceededException e) {
+                results[index] = SaleBatchItemResponseDTO.failed(index, "MAX_SALES_EXCEEDED", e.getMessage());
+                continue;
+            }
+
+            for(Map.Entry<Long, Integer> requested : quantities.entrySet()) {
+                availableStock.merge(requested.getKey(), -requested.getValue(), Integer::sum);
+            }
+
+            pendingSales.add(buildSale(index, saleRequest, quantities, permits, customer, products));
+        }
+
+        SortedMap<Long, Integer> stockDeltas = new TreeMap<>();
+        if(!pendingSales.isEmpty()) {
+            pendingSales = recheckStock(pendingSales, products, stockDeltas, results);
+        }
+
+        if(!pendingSales.isEmpty()) {
+            Map<Long, ProductResponseDTO> touchedProducts = new HashMap<>();
+            for(Long productId : stockDeltas.keySet()) {
+                touchedProducts.put(productId, productMapper.toProductResponse(products.get(productId)));
+            }
+
+            // The rows are locked, the entities refreshed and every delta checked against them, so neither reservation
+            // mode can fall short here
+            stockReservationService.reserve(touchedProducts, stockDeltas);
+            List<Sale> sales = saleRepository.saveAll(pendingSales.stream().map(PendingSale::sale).toList());
+            dailySalesAggregator.recordSales(sales);
+            topSellingTracker.recordAfterCommit(sales);
+            productCatalog.evictAfterCommit(stockDeltas.keySet());
+            lowStockIndex.decrementAfterCommit(stockDeltas);
+
+            for(PendingSale pendingSale : pendingSales) {
+                Sale sale = pendingSale.sale();
+                results[pendingSale.index()] = SaleBatchItemResponseDTO.created(pendingSale.index(), new SaleResponseDTO(
+                        sale.getId(),
+                        sale.getSaleDate(),
+                        sale.getTotalAmount(),
+                        pendingSale.customer(),
+                        pendingSale.details(),
+                        sale.getStatus()
+                ));
+            }
+        }
+
+        return new SaleBatchResponseDTO(pendingSales.size(), saleRequests.size() - pendingSales.size(), Arrays.asList(results));
+    }
+
+    // Sale rows are locked in id order, then every active sale is flipped and its stock given back with one UPDATE each
+    @Transactional
+    public SaleCancelBatchResponseDTO cancelSales(List<Long> saleIds) {
+        Set<Long> requestedIds = new LinkedHashSet<>(saleIds);
+        requestedIds.remove(null);
+        checkBatchSize(requestedIds.size());
+
+        Map<Long, Sale> sales = new HashMap<>();
+        if(!requestedIds.isEmpty()) {
+            for(Sale sale : saleRepository.findAllByIdInForUpdate(requestedIds)) {
+                sales.put(sale.getId(), sale);
+            }
+        }
+
+        List<SaleCancelItemResponseDTO> results = new ArrayList<>(requestedIds.size());
+        List<Sale> activeSales = new ArrayList<>();
+
+        for(Long saleId : requestedIds) {
+            Sale sale = sales.get(saleId);
+
+            if(sale == null) {
+                results.add(SaleCancelItemResponseDTO.failed(saleId, "SALE_NOT_FOUND", "Sale with id " + saleId + " not found"));
+            } else if(sale.getStatus() == SaleStatus.CANCELED) {
+                results.add(SaleCancelItemResponseDTO.failed(saleId, "INVALID_SALE_STATE",
+                        "The sale with id " + saleId + " is already canceled"));
+            } else {
+                activeSales.add(sale);
+                results.add(SaleCancelItemResponseDTO.canceled(saleId));
+            }
+        }
+
+        if(!activeSales.isEmpty()) {
+            List<Long> activeIds = activeSales.stream().map(Sale::getId).toList();
+            saleRepository.cancelActive(activeIds);
+            productRepository.restoreStock(activeIds);
+            dailySalesAggregator.removeSales(activeIds);
+            topSellingTracker.removeAfterCommit(activeSales);
+
+            Set<Long> touchedProducts = new TreeSet<>();
+            for(Sale sale : activeSales) {
+                Set<Long> productIds = SaleService.productIdsOf(sale);
+                saleLimitService.release(sale.getCustomer().getId(), productIds, sale.getSaleDate());
+                touchedProducts.addAll(productIds);
+            }
+            productCatalog.evictAfterCommit(touchedProducts);
+            lowStockIndex.restoreAfterCommit(activeSales);
+        }
+
+        return new SaleCancelBatchResponseDTO(activeSales.size(), requestedIds.size() - activeSales.size(), results);
+    }
+
+    private void checkBatchSize(int size) {
+        if(size > saleBatchProperties.maxSize()) {
+            throw new SaleBatchTooLargeException("A batch accepts at most " + saleBatchProperties.maxSize()
+                    + " sales but " + size + " were sent");
+        }
+    }
+
+    // A concurrent checkout can drain a product between the unlocked read and the write. The rows are locked here, after
+    // the limit counters and in id order like a checkout, and each sale is checked again against the committed stock:
+    // one that no longer fits is reported and gives its limit slots back instead of rolling back the whole batch
+    private List<PendingSale> recheckStock(List<PendingSale> pendingSales, Map<Long, Product> products,
+                                           SortedMap<Long, Integer> stockDeltas, SaleBatchItemResponseDTO[] results) {
+        Set<Long> productIds = new TreeSet<>();
+        for(PendingSale pendingSale : pendingSales) {
+            productIds.addAll(pendingSale.quantities().keySet());
+        }
+
+        Map<Long, Integer> lockedStock = new HashMap<>();
+        for(StockLevelDTO stockLevel : productRepository.findStockLevelsForUpdate(productIds)) {
+            lockedStock.put(stockLevel.productId(), stockLevel.stock());
+
+            // The projection leaves the entities read before the lock untouched; refreshing them now that the row is
+            // locked gives the optimistic reservation the stock and version it is about to check and write
+            entityManager.refresh(products.get(stockLevel.productId()));
+        }
+
+        List<PendingSale> placedSales = new ArrayList<>(pendingSales.size());
+        for(PendingSale pendingSale : pendingSales) {
+            SortedMap<Long, Integer> quantities = pendingSale.quantities();
+            SaleBatchItemResponseDTO stockFailure = checkStock(pendingSale.index(), quantities, products, lockedStock);
+
+            if(stockFailure != null) {
+                results[pendingSale.index()] = stockFailure;
+                saleLimitService.release(pendingSale.permits());
+                continue;
+            }
+
+            for(Map.Entry<Long, Integer> requested : quantities.entrySet()) {
+                lockedStock.merge(requested.getKey(), -requested.getValue(), Integer::sum);
+                stockDeltas.merge(requested.getKey(), requested.getValue(), Integer::sum);
+            }
+            placedSales.add(pendingSale);
+        }
+
+        return placedSales;
+    }
+
+    private SaleBatchItemResponseDTO checkStock(int index, SortedMap<Long, Integer> quantities,
+                                                Map<Long, Product> products, Map<Long, Integer> availableStock) {
+        for(Map.Entry<Long, Integer> requested : quantities.entrySet()) {
+            Product product = products.get(requested.getKey());
+            Integer available = availableStock.get(requested.getKey());
+
+            if(product == null || available == null) {
+                return SaleBatchItemResponseDTO.failed(index, "PRODUCT_NOT_FOUND",
+                        "Product with id " + requested.getKey() + " not found");
+            }
+            if(available < requested.getValue()) {
+                return SaleBatchItemResponseDTO.failed(index, "INSUFFICIENT_STOCK",
+                        "Insufficient stock for product " + product.getName());
+            }
+        }
+
+        return null;
+    }
+
+    private PendingSale buildSale(int index, SaleRequestDTO saleRequest, SortedMap<Long, Integer> quantities,
+                                  List<SalePermit> permits, CustomerResponseDTO customer, Map<Long, Product> products) {
+        List<SaleDetail> saleDetails = new ArrayList<>();
+        List<SaleDetailResponseDTO> detailResponses = new ArrayList<>();
+        BigDecimal totalAmount = BigDecimal.ZERO;
+
+        for(SaleDetailRequestDTO detailRequest : saleRequest.saleDetails()) {
+            BigDecimal price = detailRequest.price();
+            totalAmount = totalAmount.add(price.multiply(BigDecimal.valueOf(detailRequest.quantity())));
+            Product product = products.get(detailRequest.productId());
+
+            saleDetails.add(SaleDetail.builder()
+                    .product(product)
+                    .quantity(detailRequest.quantity())
+                    .price(price)
+                    .build());
+            detailResponses.add(new SaleDetailResponseDTO(product.getId(), product.getName(), detailRequest.quantity(), price));
+        }
+
+        Sale sale = Sale.builder()
+                .saleDate(LocalDate.now())
+                .totalAmount(totalAmount)
+                .customer(customerRepository.getReferenceById(customer.id()))
+                .saleDetails(saleDetails)
+                .build();
+
+        for(SaleDetail saleDetail : saleDetails) {
+            saleDetail.setSale(sale);
+        }
+
+        return new PendingSale(index, sale, quantities, permits, customer, detailResponses);
+    }
+
+    private record PendingSale(int index, Sale sale, SortedMap<Long, Integer> quantities, List<SalePermit> permits,
+                               CustomerResponseDTO customer, List<SaleDetailResponseDTO> details) {
+    }
+}
@@ -1,121 +1,205 @@
 package com.store.service;
 
+import com.store.config.SalePageProperties;
 import com.store.dto.customer.CustomerResponseDTO;
+import com.store.dto.product.ProductResponseDTO;
+import com.store.dto.sale.SalePageResponseDTO;
 import com.store.dto.sale.SaleRequestDTO;
 import com.store.dto.sale.SaleResponseDTO;
+import com.store.dto.sale.SaleRowDTO;
 import com.store.dto.saleDetail.SaleDetailRequestDTO;
 import com.store.dto.saleDetail.SaleDetailResponseDTO;
-import com.store.entity.Customer;
-import com.store.entity.Product;
 import com.store.entity.Sale;
 import com.store.entity.SaleDetail;
 import com.store.enums.SaleStatus;
-import com.store.exception.customer.CustomerNotFoundException;
-import com.store.exception.product.InsufficientStockException;
 import com.store.exception.product.ProductNotFoundException;
 import com.store.exception.sale.InvalidSaleStateException;
-import com.store.exception.sale.MaxSalesPerDayException;
 import com.store.exception.sale.SaleNotFoundException;
-import com.store.mapper.CustomerMapper;
-import com.store.mapper.SaleDetailMapper;
 import com.store.mapper.SaleMapper;
 import com.store.repository.CustomerRepository;
 import com.store.repository.ProductRepository;
 import com.store.repository.SaleRepository;
+import com.store.service.idempotency.IdempotencyStore;
+import com.store.service.limit.SaleLimitService;
+import com.store.service.ranking.TopSellingTracker;
+import com.store.service.report.DailySalesAggregator;
+import com.store.service.stock.LowStockIndex;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "store.service", histogram = true)
 public class SaleService {
 
     private final SaleRepository saleRepository;
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
-    private final CustomerMapper customerMapper;
-    private final SaleDetailMapper saleDetailMapper;
     private final SaleMapper saleMapper;
+    private final StockReservationService stockReservationService;
+    private final SalePageProperties salePageProperties;
+    private final SaleLimitService saleLimitService;
+    private final ProductCatalog productCatalog;
+    private final CustomerDirectory customerDirectory;
+    private final IdempotencyStore idempotencyStore;
+    private final DailySalesAggregator dailySalesAggregator;
+    private final TopSellingTracker topSellingTracker;
+    private final LowStockIndex lowStockIndex;
 
     @Autowired
     public SaleService(
             SaleRepository saleRepository,
             CustomerRepository customerRepository,
             ProductRepository productRepository,
-            CustomerMapper customerMapper,
-            SaleDetailMapper saleDetailMapper,
-            SaleMapper saleMapper
+            SaleMapper saleMapper,
+            StockReservationService stockReservationService,
+            SalePageProperties salePageProperties,
+            SaleLimitService saleLimitService,
+            ProductCatalog productCatalog,
+            CustomerDirectory customerDirectory,
+            IdempotencyStore idempotencyStore,
+            DailySalesAggregator dailySalesAggregator,
+            TopSellingTracker topSellingTracker,
+            LowStockIndex lowStockIndex
     ) {
         this.saleRepository = saleRepository;
         this.customerRepository = customerRepository;
         this.productRepository = productRepository;
-        this.customerMapper = customerMapper;
-        this.saleDetailMapper = saleDetailMapper;
         this.saleMapper = saleMapper;
+        this.stockReservationService = stockReservationService;
+        this.salePageProperties = salePageProperties;
+        this.saleLimitService = saleLimitService;
+        this.productCatalog = productCatalog;
+        this.customerDirectory = customerDirectory;
+        this.idempotencyStore = idempotencyStore;
+        this.dailySalesAggregator = dailySalesAggregator;
+        this.topSellingTracker = topSellingTracker;
+        this.lowStockIndex = lowStockIndex;
     }
 
+    // Read paths project straight into flat rows: no managed entities, no dirty checking, no MapStruct pass
     public SaleResponseDTO getSaleById(Long id) {
-        Sale sale = saleRepository.findById(id)
-                .orElseThrow(() -> new SaleNotFoundException("Sale with id " + id + " does not exists"));
+        List<SaleRowDTO> rows = saleRepository.findRowsById(id);
 
-        return saleMapper.toSaleResponse(sale);
+        if(rows.isEmpty()) {
+            throw new SaleNotFoundException("Sale with id " + id + " does not exists");
+        }
+
+        List<SaleResponseDTO> sales = new ArrayList<>(1);
+        assembleSales(rows.iterator(), sales::add);
+
+        return sales.get(0);
     }
 
     public List<SaleResponseDTO> getAllSales() {
-        List<Sale> saleList = saleRepository.findAll();
+        List<SaleResponseDTO> sales = new ArrayList<>();
+        assembleSales(saleRepository.findAllRows().iterator(), sales::add);
+
+        return sales;
+    }
+
+    // Keyset pagination on id: every page is an index range scan no matter how deep the cursor is
+    public SalePageResponseDTO getSalesPage(Long after, Integer size) {
+        int pageSize = size == null ? salePageProperties.defaultSize() : Math.clamp(size, 1, salePageProperties.maxSize());
+        List<Long> ids = saleRepository.findIdsAfter(after == null ? 0L : after, Limit.of(pageSize + 1));
+
+        Long nextCursor = null;
+        if(ids.size() > pageSize) {
+            ids = ids.subList(0, pageSize);
+            nextCursor = ids.get(pageSize - 1);
+        }
+
+        List<SaleResponseDTO> sales = new ArrayList<>(ids.size());
+        if(!ids.isEmpty()) {
+            assembleSales(saleRepository.findRowsByIdIn(ids).iterator(), sales::add);
+        }
 
-        return saleMapper.toSaleResponseList(saleList);
+        return new SalePageResponseDTO(sales, nextCursor);
+    }
+
+    // Rows are read through a server-side cursor and handed over sale by sale, so memory stays flat for any table size
+    @Transactional
+    public void streamAllSales(Consumer<SaleResponseDTO> consumer) {
+        try(Stream<SaleRowDTO> rows = saleRepository.streamAllRows()) {
+            assembleSales(rows.iterator(), consumer);
+        }
     }
 
     @Transactional
     public SaleResponseDTO createNewSale(SaleRequestDTO saleRequest) {
-        int maxSalesPerDay = 3;
-        Long customerId = saleRequest.customerId();
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new CustomerNotFoundException("Customer with id " + customerId + " not found"));
+        return placeSale(saleRequest);
+    }
 
-        int customerSalesToday = saleRepository.countSalesByCustomerAndDate(customerId, LocalDate.now());
+    // The key is claimed before anything else, so a duplicate request never reaches stock or sale limits
+    @Transactional
+    public SaleResponseDTO createNewSale(SaleRequestDTO saleRequest, String idempotencyKey, String requestHash) {
+        idempotencyStore.claim(idempotencyKey, requestHash);
+        SaleResponseDTO response = placeSale(saleRequest);
+        idempotencyStore.complete(idempotencyKey, requestHash, response);
 
-        if(customerSalesToday >= maxSalesPerDay) {
-            throw new MaxSalesPerDayException("The customer has reached the maximum sales limit");
-        }
+        return response;
+    }
 
-        List<SaleDetailRequestDTO> detailRequests = saleRequest.saleDetails();
-        List<SaleDetail> saleDetails = new ArrayList<>();
-        BigDecimal totalAmount = BigDecimal.ZERO;
+    private SaleResponseDTO placeSale(SaleRequestDTO saleRequest) {
+        Long customerId = saleRequest.customerId();
+        CustomerResponseDTO customer = customerDirectory.getCustomer(customerId);
 
+        List<SaleDetailRequestDTO> detailRequests = saleRequest.saleDetails();
+        SortedMap<Long, Integer> requestedQuantities = new TreeMap<>();
         for(SaleDetailRequestDTO detailRequest : detailRequests) {
-            Product product = productRepository.findById(detailRequest.productId())
-                    .orElseThrow(() -> new ProductNotFoundException("Product with id " + detailRequest.productId() + " not found"));
+            requestedQuantities.merge(detailRequest.productId(), detailRequest.quantity(), Integer::sum);
+        }
 
-            if(product.getStock() < detailRequest.quantity()) {
-                throw new InsufficientStockException("Insufficient stock for product " + product.getName());
-            }
+        saleLimitService.reserve(customerId, requestedQuantities.keySet());
+
+        Map<Long, ProductResponseDTO> products = findProductsForSale(requestedQuantities.keySet());
 
-            product.setStock(product.getStock() - detailRequest.quantity());
-            productRepository.save(product);
+        stockReservationService.reserve(products, requestedQuantities);
 
+        List<SaleDetail> saleDetails = new ArrayList<>();
+        List<SaleDetailResponseDTO> detailResponses = new ArrayList<>();
+        BigDecimal totalAmount = BigDecimal.ZERO;
+
+        for(SaleDetailRequestDTO detailRequest : detailRequests) {
             BigDecimal price = detailRequest.price();
             BigDecimal quantity = BigDecimal.valueOf(detailRequest.quantity());
             totalAmount = totalAmount.add(price.multiply(quantity));
 
+            // Only the foreign key is needed, so the product row is never read
             SaleDetail saleDetail = SaleDetail.builder()
-                    .product(product)
+                    .product(productRepository.getReferenceById(detailRequest.productId()))
                     .quantity(detailRequest.quantity())
                     .price(price)
                     .build();
 
             saleDetails.add(saleDetail);
+            detailResponses.add(new SaleDetailResponseDTO(
+                    detailRequest.productId(),
+                    products.get(detailRequest.productId()).name(),
+                    detailRequest.quantity(),
+                    price
+            ));
         }
 
         Sale newSale = Sale.builder()
                 .saleDate(LocalDate.now())
                 .totalAmount(totalAmount)
-                .customer(customer)
+                .customer(customerRepository.getReferenceById(customerId))
                 .saleDetails(saleDetails)
                 .build();
 
@@ -124,29 +208,109 @@ public class SaleService {
         }
 
         newSale = saleRepository.save(newSale);
+        dailySalesAggregator.recordSales(List.of(newSale));
+        topSellingTracker.recordAfterCommit(List.of(newSale));
+        productCatalog.evictAfterCommit(requestedQuantities.keySet());
+        lowStockIndex.decrementAfterCommit(requestedQuantities);
 
-        return saleMapper.toSaleResponse(newSale);
+        return new SaleResponseDTO(
+                newSale.getId(),
+                newSale.getSaleDate(),
+                totalAmount,
+                customer,
+                detailResponses,
+                newSale.getStatus()
+        );
     }
 
     @Transactional
     public SaleResponseDTO cancelSale(Long id) {
-        Sale sale = saleRepository.findById(id)
+        Sale sale = saleRepository.findWithDetailsById(id)
                 .orElseThrow(() -> new SaleNotFoundException("Sale with id " + id + " not found"));
 
         if(sale.getStatus() == SaleStatus.CANCELED) {
             throw new InvalidSaleStateException("The sale with id " + id + "is already canceled");
         }
 
+        // The status flip is conditional, so of two concurrent cancels only one restores stock
+        if(saleRepository.cancelActive(List.of(id)) == 0) {
+            throw new InvalidSaleStateException("The sale with id " + id + "is already canceled");
+        }
+        productRepository.restoreStock(List.of(id));
+        dailySalesAggregator.removeSales(List.of(id));
+        topSellingTracker.removeAfterCommit(List.of(sale));
+
+        Set<Long> productIds = productIdsOf(sale);
+        saleLimitService.release(sale.getCustomer().getId(), productIds, sale.getSaleDate());
+        productCatalog.evictAfterCommit(productIds);
+        lowStockIndex.restoreAfterCommit(List.of(sale));
+
+        SaleResponseDTO response = saleMapper.toSaleResponse(sale);
+        return new SaleResponseDTO(
+                response.id(),
+                response.saleDate(),
+                response.totalAmount(),
+                response.customer(),
+                response.saleDetails(),
+                SaleStatus.CANCELED
+        );
+    }
+
+    static Set<Long> productIdsOf(Sale sale) {
+        Set<Long> productIds = new TreeSet<>();
         for(SaleDetail detail : sale.getSaleDetails()) {
-            Product product = detail.getProduct();
-            product.setStock(product.getStock() + detail.getQuantity());
-            productRepository.save(product);
+            productIds.add(detail.getProduct().getId());
+        }
+
+        return productIds;
+    }
+
+    private Map<Long, ProductResponseDTO> findProductsForSale(Set<Long> productIds) {
+        Map<Long, ProductResponseDTO> products = productCatalog.getProducts(productIds);
+
+        for(Long productId : productIds) {
+            if(!products.containsKey(productId)) {
+                throw new ProductNotFoundException("Product with id " + productId + " not found");
+            }
         }
 
-        sale.setStatus(SaleStatus.CANCELED);
+        return products;
+    }
 
-        saleRepository.save(sale);
+    // Rows are ordered by sale id, so a sale is complete as soon as the next id shows up
+    private void assembleSales(Iterator<SaleRowDTO> rows, Consumer<SaleResponseDTO> consumer) {
+        SaleRowDTO current = null;
+        List<SaleDetailResponseDTO> details = new ArrayList<>();
+
+        while(rows.hasNext()) {
+            SaleRowDTO row = rows.next();
+
+            if(current == null || !current.saleId().equals(row.saleId())) {
+                if(current != null) {
+                    consumer.accept(toSaleResponse(current, details));
+                    details = new ArrayList<>();
+                }
+                current = row;
+            }
+
+            if(row.productId() != null) {
+                details.add(new SaleDetailResponseDTO(row.productId(), row.productName(), row.quantity(), row.price()));
+            }
+        }
+
+        if(current != null) {
+            consumer.accept(toSaleResponse(current, details));
+        }
+    }
 
-        return saleMapper.toSaleResponse(sale);
+    private SaleResponseDTO toSaleResponse(SaleRowDTO row, List<SaleDetailResponseDTO> details) {
+        return new SaleResponseDTO(
+                row.saleId(),
+                row.saleDate(),
+                row.totalAmount(),
+                new CustomerResponseDTO(row.customerId(), row.customerName(), row.customerLastName(), row.customerEmail()),
+                details,
+                row.status()
+        );
     }
 }
@@ -0,0 +1,75 @@
+package com.store.service;
+
+import com.store.config.StockProperties;
+import com.store.dto.product.ProductResponseDTO;
+import com.store.entity.Product;
+import com.store.enums.StockReservationMode;
+import com.store.exception.product.InsufficientStockException;
+import com.store.exception.product.ProductNotFoundException;
+import com.store.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+@Service
+@Timed(value = "store.service", histogram = true)
+public class StockReservationService {
+
+    private final ProductRepository productRepository;
+    private final StockProperties stockProperties;
+
+    @Autowired
+    public StockReservationService(ProductRepository productRepository, StockProperties stockProperties) {
+        this.productRepository = productRepository;
+        this.stockProperties = stockProperties;
+    }
+
+    // Quantities are ordered by product id so concurrent baskets always lock rows in the same order.
+    // Cached product data is only used for messages: stock is always checked against the database
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void reserve(Map<Long, ProductResponseDTO> products, SortedMap<Long, Integer> quantities) {
+        if(stockProperties.reservationMode() == StockReservationMode.OPTIMISTIC) {
+            reserveOptimistically(quantities);
+            return;
+        }
+
+        for(Map.Entry<Long, Integer> requested : quantities.entrySet()) {
+            int updatedRows = productRepository.decrementStock(requested.getKey(), requested.getValue());
+
+            if(updatedRows == 0) {
+                ProductResponseDTO product = products.get(requested.getKey());
+                throw new InsufficientStockException("Insufficient stock for product " + product.name());
+            }
+        }
+    }
+
+    // Versioned entities: a concurrent commit on the same product fails with an optimistic lock error
+    private void reserveOptimistically(SortedMap<Long, Integer> quantities) {
+        Map<Long, Product> products = new HashMap<>();
+        for(Product product : productRepository.findAllById(quantities.keySet())) {
+            products.put(product.getId(), product);
+        }
+
+        for(Map.Entry<Long, Integer> requested : quantities.entrySet()) {
+            Product product = products.get(requested.getKey());
+
+            // Deleted after the catalog cache handed it out
+            if(product == null) {
+                throw new ProductNotFoundException("Product with id " + requested.getKey() + " not found");
+            }
+            if(product.getStock() < requested.getValue()) {
+                throw new InsufficientStockException("Insufficient stock for product " + product.getName());
+            }
+        }
+
+        for(Map.Entry<Long, Integer> requested : quantities.entrySet()) {
+            Product product = products.get(requested.getKey());
+            product.setStock(product.getStock() - requested.getValue());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.store.service.csv;
+
+import com.store.dto.csv.CsvImportJobResponseDTO;
+import com.store.dto.csv.CsvRowErrorDTO;
+import com.store.enums.CsvImportJobStatus;
+import com.store.enums.CsvImportMode;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CsvImportJob {
+
+    private final String id;
+    private final CsvImportMode mode;
+    private final int maxReportedRejections;
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final List<CsvRowErrorDTO> rejectedRows = new ArrayList<>();
+
+    private volatile CsvImportJobStatus status = CsvImportJobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String errorMessage;
+
+    public CsvImportJob(String id, CsvImportMode mode, int maxReportedRejections) {
+        this.id = id;
+        this.mode = mode;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public CsvImportMode getMode() {
+        return mode;
+    }
+
+    public CsvImportJobStatus getStatus() {
+        return status;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRowsImported() {
+        return rowsImported.get();
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+
+    public void start() {
+        startedAt = Instant.now();
+        status = CsvImportJobStatus.RUNNING;
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        status = CsvImportJobStatus.COMPLETED;
+    }
+
+    public void fail(String message) {
+        finishedAt = Instant.now();
+        errorMessage = message;
+        status = CsvImportJobStatus.FAILED;
+    }
+
+    public void recordImported(int rows) {
+        rowsProcessed.addAndGet(rows);
+        rowsImported.addAndGet(rows);
+    }
+
+    public void recordRejected(long line, String reason) {
+        rowsProcessed.incrementAndGet();
+        rowsRejected.incrementAndGet();
+
+        synchronized(rejectedRows) {
+            if(rejectedRows.size() < maxReportedRejections) {
+                rejectedRows.add(new CsvRowErrorDTO(line, reason));
+            }
+        }
+    }
+
+    public CsvImportJobResponseDTO toResponse() {
+        List<CsvRowErrorDTO> rejectedRowsSnapshot;
+        synchronized(rejectedRows) {
+            rejectedRowsSnapshot = List.copyOf(rejectedRows);
+        }
+
+        return new CsvImportJobResponseDTO(
+                id,
+                mode,
+                status,
+                rowsProcessed.get(),
+                rowsImported.get(),
+                rowsRejected.get(),
+                rowsPerSecond(),
+                startedAt,
+                finishedAt,
+                rejectedRowsSnapshot,
+                errorMessage
+        );
+    }
+
+    private double rowsPerSecond() {
+        Instant start = startedAt;
+        if(start == null) {
+            return 0;
+        }
+
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long elapsedMillis = Math.max(1, Duration.between(start, end).toMillis());
+
+        return rowsProcessed.get() * 1000.0 / elapsedMillis;
+    }
+}
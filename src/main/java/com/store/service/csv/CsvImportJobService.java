@@ -0,0 +1,179 @@
+package com.store.service.csv;
+
+import com.store.config.CsvImportProperties;
+import com.store.dto.csv.CsvImportJobResponseDTO;
+import com.store.enums.CsvImportJobStatus;
+import com.store.enums.CsvImportMode;
+import com.store.exception.csv.CsvImportJobNotFoundException;
+import com.store.exception.csv.CsvImportRejectedException;
+import com.store.exception.csv.InvalidCsvImportFileException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Timed(value = "store.service", histogram = true)
+public class CsvImportJobService {
+
+    private final CsvImportService csvImportService;
+    private final CsvImportProperties csvImportProperties;
+    private final Executor csvImportExecutor;
+    private final Map<String, CsvImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CsvImportJobService(CsvImportService csvImportService, CsvImportProperties csvImportProperties) {
+        this(csvImportService, csvImportProperties, new ThreadPoolExecutor(
+                csvImportProperties.maxConcurrentJobs(),
+                csvImportProperties.maxConcurrentJobs(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(csvImportProperties.queueCapacity()),
+                Thread.ofVirtual().name("csv-import-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        ));
+    }
+
+    public CsvImportJobService(CsvImportService csvImportService, CsvImportProperties csvImportProperties, Executor csvImportExecutor) {
+        this.csvImportService = csvImportService;
+        this.csvImportProperties = csvImportProperties;
+        this.csvImportExecutor = csvImportExecutor;
+    }
+
+    public CsvImportJobResponseDTO submitProductsImport(MultipartFile csvFile, boolean hasHeader, CsvImportMode mode) {
+        evictExpiredJobs();
+
+        // The multipart upload is gone once the request ends, so the import reads from its own copy
+        Path csvCopy = copyToTempFile(csvFile);
+        CsvImportJob job = new CsvImportJob(UUID.randomUUID().toString(), mode, csvImportProperties.maxReportedRejections());
+        jobs.put(job.getId(), job);
+
+        try {
+            csvImportExecutor.execute(() -> runImport(job, csvCopy, hasHeader));
+        } catch(RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            deleteQuietly(csvCopy);
+            throw new CsvImportRejectedException("Too many CSV imports in progress, please retry later");
+        }
+
+        return job.toResponse();
+    }
+
+    public CsvImportJobResponseDTO submitLocalProductsImport(String fileName, boolean hasHeader, CsvImportMode mode) {
+        evictExpiredJobs();
+
+        Path csvFile = resolveLocalFile(fileName);
+        CsvImportJob job = new CsvImportJob(UUID.randomUUID().toString(), mode, csvImportProperties.maxReportedRejections());
+        jobs.put(job.getId(), job);
+
+        try {
+            csvImportExecutor.execute(() -> runLocalImport(job, csvFile, hasHeader));
+        } catch(RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new CsvImportRejectedException("Too many CSV imports in progress, please retry later");
+        }
+
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if(csvImportExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    public CsvImportJobResponseDTO getJob(String id) {
+        CsvImportJob job = jobs.get(id);
+
+        if(job == null) {
+            throw new CsvImportJobNotFoundException("Import job with id " + id + " not found");
+        }
+
+        return job.toResponse();
+    }
+
+    private void runImport(CsvImportJob job, Path csvCopy, boolean hasHeader) {
+        job.start();
+
+        try(InputStream inputStream = Files.newInputStream(csvCopy)) {
+            csvImportService.importProducts(inputStream, hasHeader, job);
+            job.complete();
+        } catch(Exception e) {
+            job.fail(e.getMessage());
+        } finally {
+            deleteQuietly(csvCopy);
+        }
+    }
+
+    private void runLocalImport(CsvImportJob job, Path csvFile, boolean hasHeader) {
+        job.start();
+
+        try {
+            csvImportService.importProductsFromFile(csvFile, hasHeader, job);
+            job.complete();
+        } catch(Exception e) {
+            job.fail(e.getMessage());
+        }
+    }
+
+    // Only plain files inside the configured import directory can be read
+    private Path resolveLocalFile(String fileName) {
+        Path localDirectory = csvImportProperties.localDirectory();
+
+        if(localDirectory == null) {
+            throw new InvalidCsvImportFileException("Local CSV imports are disabled");
+        }
+
+        Path directory = localDirectory.toAbsolutePath().normalize();
+        Path csvFile = directory.resolve(fileName).normalize();
+
+        if(!csvFile.getParent().equals(directory) || !Files.isRegularFile(csvFile)) {
+            throw new InvalidCsvImportFileException("File " + fileName + " is not available for import");
+        }
+
+        return csvFile;
+    }
+
+    private void evictExpiredJobs() {
+        Instant expiration = Instant.now().minus(csvImportProperties.jobRetention());
+
+        jobs.values().removeIf(job -> job.getStatus() != CsvImportJobStatus.QUEUED
+                && job.getStatus() != CsvImportJobStatus.RUNNING
+                && job.getFinishedAt().isBefore(expiration));
+    }
+
+    private Path copyToTempFile(MultipartFile csvFile) {
+        try {
+            Path csvCopy = Files.createTempFile("products-import-", ".csv");
+            csvFile.transferTo(csvCopy);
+            return csvCopy;
+        } catch(IOException e) {
+            throw new UncheckedIOException("Error storing CSV file", e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch(IOException ignored) {
+        }
+    }
+}
@@ -1,67 +1,245 @@
 package com.store.service.csv;
 
 import com.opencsv.CSVReader;
+import com.store.config.CsvImportProperties;
 import com.store.entity.Product;
-import com.store.repository.ProductRepository;
-import jakarta.transaction.Transactional;
+import com.store.enums.CsvImportMode;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
+@Timed(value = "store.service", histogram = true)
 public class CsvImportService {
 
-    private final ProductRepository productRepository;
+    private static final int UPSERT_ATTEMPTS = 3;
+
+    private final ProductBatchWriter productBatchWriter;
+    private final CsvImportProperties csvImportProperties;
+    private final ExecutorService parserExecutor;
+    private final ExecutorService writerExecutor;
 
     @Autowired
-    public CsvImportService(ProductRepository productRepository) {
-        this.productRepository = productRepository;
+    public CsvImportService(ProductBatchWriter productBatchWriter, CsvImportProperties csvImportProperties) {
+        this.productBatchWriter = productBatchWriter;
+        this.csvImportProperties = csvImportProperties;
+        this.parserExecutor = Executors.newFixedThreadPool(csvImportProperties.effectiveParserThreads(),
+                Thread.ofPlatform().name("csv-parser-", 0).daemon().factory());
+        this.writerExecutor = Executors.newFixedThreadPool(csvImportProperties.writerThreads(),
+                Thread.ofPlatform().name("csv-writer-", 0).daemon().factory());
     }
 
-    @Transactional
-    public void saveProductsFromCsv(MultipartFile csvFile, boolean hasHeader) throws Exception {
-        try(Reader reader = new BufferedReader(new InputStreamReader(csvFile.getInputStream()));
-            CSVReader csvReader = new CSVReader(reader)) {
+    @PreDestroy
+    public void shutdown() {
+        parserExecutor.shutdown();
+        writerExecutor.shutdown();
+    }
 
-            List<Product> productList = new ArrayList<>();
-            List<String[]> lines = csvReader.readAll();
+    // Reader (calling thread) -> parser pool -> writer pool, with at most maxInFlightChunks chunks between stages
+    public void importProducts(InputStream inputStream, boolean hasHeader, CsvImportJob job) throws Exception {
+        int chunkSize = csvImportProperties.chunkSize();
+        ImportPipeline pipeline = new ImportPipeline(job);
+
+        try(Reader reader = new BufferedReader(new InputStreamReader(inputStream));
+            CSVReader csvReader = new CSVReader(reader)) {
 
-            if(hasHeader && !lines.isEmpty()) {
-                lines.removeFirst();
+            if(hasHeader) {
+                csvReader.skip(1);
             }
 
-            for(String[] line : lines) {
-                if(line.length < 4) {
-                    System.err.println("Invalid row: " + Arrays.toString(line));
-                    continue;
+            List<CsvRow> chunk = new ArrayList<>(chunkSize);
+            String[] line;
+
+            while(!pipeline.hasFailed() && (line = csvReader.readNext()) != null) {
+                chunk.add(new CsvRow(csvReader.getLinesRead(), line));
+
+                if(chunk.size() >= chunkSize) {
+                    pipeline.submitRows(chunk);
+                    chunk = new ArrayList<>(chunkSize);
                 }
+            }
 
-                try {
-                    Product product = new Product(
-                            line[0],
-                            line[1],
-                            Double.parseDouble(line[2]),
-                            Integer.parseInt(line[3])
-                    );
-                    productList.add(product);
-                } catch(NumberFormatException e) {
-                    System.err.println("Error to parse row: " + Arrays.toString(line) + " -> " + e.getMessage());
+            if(!chunk.isEmpty() && !pipeline.hasFailed()) {
+                pipeline.submitRows(chunk);
+            }
+        } catch(IOException e) {
+            pipeline.fail(new RuntimeException("Error reading CSV file", e));
+        } finally {
+            pipeline.awaitCompletion();
+        }
+
+        pipeline.rethrowFailure();
+    }
+
+    // Local files are memory-mapped and parsed on the calling thread, so chunks go straight to the writers
+    public void importProductsFromFile(Path csvFile, boolean hasHeader, CsvImportJob job) throws Exception {
+        MappedCsvProductReader mappedReader = new MappedCsvProductReader(csvImportProperties.chunkSize());
+        ImportPipeline pipeline = new ImportPipeline(job);
+
+        try {
+            mappedReader.read(csvFile, hasHeader, job, products -> {
+                if(pipeline.hasFailed()) {
+                    throw new PipelineAbortedException();
                 }
+                pipeline.submitProducts(products);
+            });
+        } catch(PipelineAbortedException ignored) {
+        } catch(IOException e) {
+            pipeline.fail(new RuntimeException("Error reading CSV file", e));
+        } finally {
+            pipeline.awaitCompletion();
+        }
+
+        pipeline.rethrowFailure();
+    }
+
+    private List<Product> parseChunk(List<CsvRow> rows, CsvImportJob job) {
+        List<Product> products = new ArrayList<>(rows.size());
+
+        for(CsvRow row : rows) {
+            String[] fields = row.fields();
+
+            if(fields.length < 4) {
+                job.recordRejected(row.line(), "Expected 4 columns but found " + fields.length);
+                continue;
+            }
+
+            try {
+                Product product = new Product(
+                        fields[0],
+                        fields[1],
+                        Double.parseDouble(fields[2]),
+                        Integer.parseInt(fields[3])
+                );
+                products.add(product);
+            } catch(NumberFormatException e) {
+                job.recordRejected(row.line(), "Invalid number: " + e.getMessage());
+            }
+        }
+
+        return products;
+    }
+
+    private void writeChunk(List<Product> products, CsvImportJob job) {
+        if(products.isEmpty()) {
+            return;
+        }
+
+        if(job.getMode() == CsvImportMode.UPSERT) {
+            upsertChunk(products);
+        } else {
+            productBatchWriter.writeBatch(products);
+        }
+
+        job.recordImported(products.size());
+    }
 
-                if(!productList.isEmpty()) {
-                    productRepository.saveAll(productList);
+    // A parallel writer inserted one of these keys first, or a checkout bumped the version of a product being updated;
+    // the chunk runs in a fresh transaction each time, so a retry re-reads the rows it lost on
+    private void upsertChunk(List<Product> products) {
+        for(int attempt = 1; ; attempt++) {
+            try {
+                productBatchWriter.upsertBatch(products);
+                return;
+            } catch(DataIntegrityViolationException | OptimisticLockingFailureException e) {
+                if(attempt == UPSERT_ATTEMPTS) {
+                    throw e;
                 }
             }
-        } catch(IOException e) {
-            throw new RuntimeException("Error reading CSV file", e);
+        }
+    }
+
+    private static class PipelineAbortedException extends RuntimeException {
+    }
+
+    private class ImportPipeline {
+
+        private final CsvImportJob job;
+        private final int maxInFlightChunks = csvImportProperties.maxInFlightChunks();
+        private final Semaphore inFlightChunks = new Semaphore(maxInFlightChunks);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        ImportPipeline(CsvImportJob job) {
+            this.job = job;
+        }
+
+        void submitRows(List<CsvRow> rows) throws InterruptedException {
+            inFlightChunks.acquire();
+
+            try {
+                track(CompletableFuture
+                        .supplyAsync(() -> parseChunk(rows, job), parserExecutor)
+                        .thenAcceptAsync(products -> writeChunk(products, job), writerExecutor));
+            } catch(RejectedExecutionException e) {
+                reject(e);
+            }
+        }
+
+        void submitProducts(List<Product> products) throws InterruptedException {
+            inFlightChunks.acquire();
+
+            try {
+                track(CompletableFuture.runAsync(() -> writeChunk(products, job), writerExecutor));
+            } catch(RejectedExecutionException e) {
+                reject(e);
+            }
+        }
+
+        boolean hasFailed() {
+            return failure.get() != null;
+        }
+
+        void fail(Throwable error) {
+            failure.compareAndSet(null, error);
+        }
+
+        void awaitCompletion() {
+            inFlightChunks.acquireUninterruptibly(maxInFlightChunks);
+        }
+
+        void rethrowFailure() {
+            Throwable importFailure = failure.get();
+
+            if(importFailure instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if(importFailure != null) {
+                throw new RuntimeException(importFailure);
+            }
+        }
+
+        // The chunk never reached a task that would give its permit back, e.g. because the service is shutting down
+        private void reject(RejectedExecutionException error) {
+            fail(error);
+            inFlightChunks.release();
+        }
+
+        private void track(CompletableFuture<Void> stage) {
+            stage.whenComplete((ignored, error) -> {
+                if(error != null) {
+                    fail(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                }
+                inFlightChunks.release();
+            });
         }
     }
 }
@@ -0,0 +1,7 @@
+package com.store.service.csv;
+
+public record CsvRow(
+        long line,
+        String[] fields
+) {
+}
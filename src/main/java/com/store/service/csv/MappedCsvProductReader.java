@@ -0,0 +1,313 @@
+package com.store.service.csv;
+
+import com.store.entity.Product;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Tokenizes product rows straight from a memory-mapped file: only name and brand become Strings,
+// price and stock are parsed from the bytes unless they fall outside the fast path.
+public class MappedCsvProductReader {
+
+    public static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private static final int MAX_FIELDS = 16;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    @FunctionalInterface
+    public interface ProductChunkConsumer {
+        void accept(List<Product> products) throws InterruptedException;
+    }
+
+    private final int chunkSize;
+    private final long windowSize;
+    private final int[] fieldStarts = new int[MAX_FIELDS];
+    private final int[] fieldEnds = new int[MAX_FIELDS];
+    private final boolean[] fieldEscaped = new boolean[MAX_FIELDS];
+    private byte[] scratch = new byte[256];
+
+    public MappedCsvProductReader(int chunkSize) {
+        this(chunkSize, DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedCsvProductReader(int chunkSize, long windowSize) {
+        this.chunkSize = chunkSize;
+        this.windowSize = windowSize;
+    }
+
+    public void read(Path path, boolean hasHeader, CsvImportJob job, ProductChunkConsumer consumer)
+            throws IOException, InterruptedException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long position = skipByteOrderMark(channel, fileSize);
+            long line = 0;
+            List<Product> chunk = new ArrayList<>(chunkSize);
+
+            // Files above 2 GB cannot be mapped at once, so rows are read through sliding windows
+            while(position < fileSize) {
+                long mappedSize = Math.min(windowSize, fileSize - position);
+                boolean lastWindow = position + mappedSize == fileSize;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, mappedSize);
+                int limit = (int) mappedSize;
+                int offset = 0;
+
+                while(offset < limit) {
+                    int rowEnd = findRowEnd(buffer, offset, limit);
+
+                    if(rowEnd < 0) {
+                        if(!lastWindow) {
+                            break;
+                        }
+                        rowEnd = limit;
+                    }
+
+                    line++;
+                    if(!(hasHeader && line == 1)) {
+                        parseRow(buffer, offset, rowEnd, line, job, chunk);
+                    }
+                    line += countNewLines(buffer, offset, rowEnd);
+                    offset = Math.min(rowEnd + 1, limit);
+
+                    if(chunk.size() >= chunkSize) {
+                        consumer.accept(chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+
+                if(offset == 0) {
+                    throw new IOException("Row at line " + (line + 1) + " is larger than the mapping window");
+                }
+
+                position += offset;
+            }
+
+            if(!chunk.isEmpty()) {
+                consumer.accept(chunk);
+            }
+        }
+    }
+
+    private long skipByteOrderMark(FileChannel channel, long fileSize) throws IOException {
+        if(fileSize < 3) {
+            return 0;
+        }
+
+        MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, 3);
+        boolean hasByteOrderMark = head.get(0) == (byte) 0xEF && head.get(1) == (byte) 0xBB && head.get(2) == (byte) 0xBF;
+
+        return hasByteOrderMark ? 3 : 0;
+    }
+
+    private int findRowEnd(MappedByteBuffer buffer, int from, int limit) {
+        boolean inQuotes = false;
+
+        for(int i = from; i < limit; i++) {
+            byte b = buffer.get(i);
+
+            if(b == '"') {
+                inQuotes = !inQuotes;
+            } else if(b == '\n' && !inQuotes) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private int countNewLines(MappedByteBuffer buffer, int from, int to) {
+        int newLines = 0;
+
+        for(int i = from; i < to; i++) {
+            if(buffer.get(i) == '\n') {
+                newLines++;
+            }
+        }
+
+        return newLines;
+    }
+
+    private void parseRow(MappedByteBuffer buffer, int start, int end, long line, CsvImportJob job, List<Product> chunk) {
+        if(end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+
+        int fields = tokenize(buffer, start, end);
+
+        if(fields < 4) {
+            job.recordRejected(line, "Expected 4 columns but found " + fields);
+            return;
+        }
+
+        try {
+            double price = parseDouble(buffer, fieldStarts[2], fieldEnds[2], fieldEscaped[2]);
+            int stock = parseInt(buffer, fieldStarts[3], fieldEnds[3], fieldEscaped[3]);
+
+            chunk.add(new Product(
+                    materialize(buffer, fieldStarts[0], fieldEnds[0], fieldEscaped[0]),
+                    materialize(buffer, fieldStarts[1], fieldEnds[1], fieldEscaped[1]),
+                    price,
+                    stock
+            ));
+        } catch(NumberFormatException e) {
+            job.recordRejected(line, "Invalid number: " + e.getMessage());
+        }
+    }
+
+    // Records content bounds of each field; returns the number of fields in the row
+    private int tokenize(MappedByteBuffer buffer, int start, int end) {
+        int fields = 0;
+        int position = start;
+
+        while(true) {
+            int fieldStart = position;
+            int fieldEnd;
+            boolean escaped = false;
+
+            if(position < end && buffer.get(position) == '"') {
+                fieldStart = ++position;
+
+                while(position < end) {
+                    if(buffer.get(position) == '"') {
+                        if(position + 1 < end && buffer.get(position + 1) == '"') {
+                            escaped = true;
+                            position += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    position++;
+                }
+
+                fieldEnd = position;
+                while(position < end && buffer.get(position) != ',') {
+                    position++;
+                }
+            } else {
+                while(position < end && buffer.get(position) != ',') {
+                    position++;
+                }
+                fieldEnd = position;
+            }
+
+            if(fields < MAX_FIELDS) {
+                fieldStarts[fields] = fieldStart;
+                fieldEnds[fields] = fieldEnd;
+                fieldEscaped[fields] = escaped;
+            }
+            fields++;
+
+            if(position >= end) {
+                return fields;
+            }
+            position++;
+        }
+    }
+
+    private String materialize(MappedByteBuffer buffer, int start, int end, boolean escaped) {
+        int length = copyToScratch(buffer, start, end, escaped);
+
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private int copyToScratch(MappedByteBuffer buffer, int start, int end, boolean escaped) {
+        int length = end - start;
+        if(scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+
+        if(!escaped) {
+            buffer.get(start, scratch, 0, length);
+            return length;
+        }
+
+        int written = 0;
+        for(int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            scratch[written++] = b;
+            if(b == '"') {
+                i++;
+            }
+        }
+
+        return written;
+    }
+
+    // Same accepted syntax as Integer.parseInt; anything unusual goes through it
+    private int parseInt(MappedByteBuffer buffer, int start, int end, boolean escaped) {
+        int position = start;
+        boolean negative = false;
+
+        if(!escaped && position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position) == '-';
+            position++;
+        }
+
+        int digits = end - position;
+        if(escaped || digits == 0 || digits > 9) {
+            return Integer.parseInt(materialize(buffer, start, end, escaped));
+        }
+
+        int value = 0;
+        for(int i = position; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if(digit < 0 || digit > 9) {
+                return Integer.parseInt(materialize(buffer, start, end, escaped));
+            }
+            value = value * 10 + digit;
+        }
+
+        return negative ? -value : value;
+    }
+
+    // Plain decimals whose digits fit in 53 bits are exact as mantissa / 10^scale; the rest use Double.parseDouble
+    private double parseDouble(MappedByteBuffer buffer, int start, int end, boolean escaped) {
+        int position = start;
+        boolean negative = false;
+
+        if(!escaped && position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position) == '-';
+            position++;
+        }
+
+        long mantissa = 0;
+        int scale = 0;
+        boolean seenDigit = false;
+        boolean seenDot = false;
+
+        for(int i = position; i < end && !escaped; i++) {
+            byte b = buffer.get(i);
+
+            if(b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                seenDigit = true;
+                if(seenDot) {
+                    scale++;
+                }
+                if(mantissa >= MAX_EXACT_MANTISSA || scale >= POWERS_OF_TEN.length) {
+                    return Double.parseDouble(materialize(buffer, start, end, escaped));
+                }
+            } else if(b == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                return Double.parseDouble(materialize(buffer, start, end, escaped));
+            }
+        }
+
+        if(!seenDigit) {
+            return Double.parseDouble(materialize(buffer, start, end, escaped));
+        }
+
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+}
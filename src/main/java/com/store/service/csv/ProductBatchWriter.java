@@ -0,0 +1,91 @@
+package com.store.service.csv;
+
+import com.store.dto.product.StockLevelDTO;
+import com.store.entity.Product;
+import com.store.repository.ProductRepository;
+import com.store.service.ProductCatalog;
+import com.store.service.stock.LowStockIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class ProductBatchWriter {
+
+    private final ProductRepository productRepository;
+    private final ProductCatalog productCatalog;
+    private final LowStockIndex lowStockIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ProductBatchWriter(ProductRepository productRepository, ProductCatalog productCatalog, LowStockIndex lowStockIndex) {
+        this.productRepository = productRepository;
+        this.productCatalog = productCatalog;
+        this.lowStockIndex = lowStockIndex;
+    }
+
+    // Each chunk commits on its own so a large import never holds more than one chunk in the persistence context;
+    // flushing through the repository translates unique key violations into DataIntegrityViolationException
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void writeBatch(List<Product> products) {
+        productRepository.saveAll(products);
+        productRepository.flush();
+        entityManager.clear();
+    }
+
+    // Existing (name, brand) pairs are resolved with one query per chunk and updated in place,
+    // so a re-imported catalog refreshes price and stock instead of duplicating rows
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void upsertBatch(List<Product> products) {
+        Map<ProductKey, Product> incoming = new LinkedHashMap<>();
+        for(Product product : products) {
+            incoming.put(new ProductKey(product.getName(), product.getBrand()), product);
+        }
+
+        Set<String> names = incoming.keySet().stream()
+                .map(ProductKey::name)
+                .collect(Collectors.toSet());
+
+        Map<ProductKey, Product> existing = new LinkedHashMap<>();
+        for(Product product : productRepository.findAllByNameIn(names)) {
+            existing.put(new ProductKey(product.getName(), product.getBrand()), product);
+        }
+
+        List<Product> inserts = new ArrayList<>();
+        List<Long> updatedIds = new ArrayList<>();
+        List<StockLevelDTO> updatedLevels = new ArrayList<>();
+        for(Map.Entry<ProductKey, Product> entry : incoming.entrySet()) {
+            Product row = entry.getValue();
+            Product current = existing.get(entry.getKey());
+
+            if(current != null) {
+                current.setPrice(row.getPrice());
+                current.setStock(row.getStock());
+                updatedIds.add(current.getId());
+                updatedLevels.add(new StockLevelDTO(current.getId(), current.getStock(), current.getReorderThreshold()));
+            } else {
+                inserts.add(new Product(row.getName(), row.getBrand(), row.getPrice(), row.getStock()));
+            }
+        }
+
+        productRepository.saveAll(inserts);
+        productRepository.flush();
+        entityManager.clear();
+        productCatalog.evictAfterCommit(updatedIds);
+        lowStockIndex.putAfterCommit(updatedLevels);
+    }
+
+    private record ProductKey(String name, String brand) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.store.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.store.config.IdempotencyProperties;
+import com.store.dto.sale.SaleResponseDTO;
+import com.store.entity.IdempotencyRecord;
+import com.store.repository.IdempotencyRecordRepository;
+import com.store.service.AfterCommit;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+// Stored checkout responses by idempotency key: an LRU in front of the idempotency_keys table.
+// The table row is written in the checkout transaction, so a key is only ever stored together with its sale
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties idempotencyProperties;
+    private final Cache<String, StoredSaleResponse> responses;
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper,
+                            IdempotencyProperties idempotencyProperties) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.idempotencyProperties = idempotencyProperties;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(idempotencyProperties.cacheSize())
+                .expireAfterWrite(idempotencyProperties.retention())
+                .build();
+    }
+
+    public Optional<StoredSaleResponse> find(String idempotencyKey) {
+        StoredSaleResponse cached = responses.getIfPresent(idempotencyKey);
+        if(cached != null) {
+            return Optional.of(cached);
+        }
+
+        return idempotencyRecordRepository.findById(idempotencyKey)
+                .filter(record -> record.getResponse() != null)
+                .map(record -> {
+                    StoredSaleResponse stored = new StoredSaleResponse(record.getRequestHash(), read(record.getResponse()));
+                    responses.put(idempotencyKey, stored);
+                    return stored;
+                });
+    }
+
+    // Taken first in the checkout: a concurrent request with the same key blocks on this row
+    // and fails with a duplicate key once the owner commits
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void claim(String idempotencyKey, String requestHash) {
+        idempotencyRecordRepository.claim(idempotencyKey, requestHash, LocalDateTime.now());
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void complete(String idempotencyKey, String requestHash, SaleResponseDTO response) {
+        idempotencyRecordRepository.complete(idempotencyKey, write(response));
+
+        StoredSaleResponse stored = new StoredSaleResponse(requestHash, response);
+        AfterCommit.run(() -> responses.put(idempotencyKey, stored));
+    }
+
+    public String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch(JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch(NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Scheduled(fixedDelay = 3_600_000)
+    @Transactional
+    public void deleteExpiredKeys() {
+        idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(idempotencyProperties.retention()));
+    }
+
+    private String write(SaleResponseDTO response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch(JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private SaleResponseDTO read(String response) {
+        try {
+            return objectMapper.readValue(response, SaleResponseDTO.class);
+        } catch(JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.store.service.idempotency;
+
+import com.store.dto.sale.SaleRequestDTO;
+import com.store.dto.sale.SaleResponseDTO;
+import com.store.exception.sale.IdempotencyKeyReusedException;
+import com.store.exception.sale.InvalidIdempotencyKeyException;
+import com.store.service.SaleService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+// A replayed key returns the stored response without opening a transaction
+@Service
+@Timed(value = "store.service", histogram = true)
+public class IdempotentSaleService {
+
+    static final int MAX_KEY_LENGTH = 128;
+
+    private final SaleService saleService;
+    private final IdempotencyStore idempotencyStore;
+
+    @Autowired
+    public IdempotentSaleService(SaleService saleService, IdempotencyStore idempotencyStore) {
+        this.saleService = saleService;
+        this.idempotencyStore = idempotencyStore;
+    }
+
+    public SaleResponseDTO createNewSale(String idempotencyKey, SaleRequestDTO saleRequest) {
+        if(idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = idempotencyStore.fingerprint(saleRequest);
+        Optional<StoredSaleResponse> stored = idempotencyStore.find(idempotencyKey);
+        if(stored.isPresent()) {
+            return replay(idempotencyKey, requestHash, stored.get());
+        }
+
+        try {
+            return saleService.createNewSale(saleRequest, idempotencyKey, requestHash);
+        } catch(DataIntegrityViolationException e) {
+            // Lost the race for the key: the winner has committed, so its response is stored
+            return idempotencyStore.find(idempotencyKey)
+                    .map(winner -> replay(idempotencyKey, requestHash, winner))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private SaleResponseDTO replay(String idempotencyKey, String requestHash, StoredSaleResponse stored) {
+        if(!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key " + idempotencyKey + " was already used for a different sale");
+        }
+
+        return stored.response();
+    }
+}
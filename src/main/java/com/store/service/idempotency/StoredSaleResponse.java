@@ -0,0 +1,6 @@
+package com.store.service.idempotency;
+
+import com.store.dto.sale.SaleResponseDTO;
+
+public record StoredSaleResponse(String requestHash, SaleResponseDTO response) {
+}
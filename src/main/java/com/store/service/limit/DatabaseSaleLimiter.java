@@ -0,0 +1,79 @@
+package com.store.service.limit;
+
+import com.store.entity.SaleLimitCounterId;
+import com.store.exception.sale.SaleLimitExceededException;
+import com.store.repository.SaleLimitCounterRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Cluster-safe limiter: one conditional UPDATE per permit inside the checkout transaction,
+// so a rollback gives the slot back and the row lock serializes nodes racing for the last one
+@Component
+@ConditionalOnProperty(prefix = "store.sales.limit", name = "backend", havingValue = "DATABASE")
+public class DatabaseSaleLimiter implements SaleLimiter {
+
+    private final SaleLimitCounterRepository saleLimitCounterRepository;
+    private final SaleLimitCounterInitializer saleLimitCounterInitializer;
+    // Counter rows this node has already seen, with their window end
+    private final ConcurrentMap<SaleLimitCounterId, LocalDateTime> knownRows = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DatabaseSaleLimiter(SaleLimitCounterRepository saleLimitCounterRepository,
+                               SaleLimitCounterInitializer saleLimitCounterInitializer) {
+        this.saleLimitCounterRepository = saleLimitCounterRepository;
+        this.saleLimitCounterInitializer = saleLimitCounterInitializer;
+    }
+
+    // A refused permit gives back the ones taken before it and leaves the transaction usable,
+    // so a batch can reject one sale and keep going
+    @Override
+    @Transactional(value = Transactional.TxType.MANDATORY, dontRollbackOn = SaleLimitExceededException.class)
+    public void reserve(List<SalePermit> permits) {
+        for(int i = 0; i < permits.size(); i++) {
+            SalePermit permit = permits.get(i);
+            SaleLimitCounterId id = idOf(permit);
+
+            if(!knownRows.containsKey(id)) {
+                saleLimitCounterInitializer.createIfAbsent(permit);
+                knownRows.put(id, permit.windowEnd());
+            }
+
+            int updatedRows = saleLimitCounterRepository.tryIncrement(
+                    permit.policy(), permit.subject(), permit.windowStart(), permit.limit());
+
+            if(updatedRows == 0) {
+                release(permits.subList(0, i));
+                throw new SaleLimitExceededException("Sale limit '" + permit.policy() + "' reached for " + permit.subject());
+            }
+        }
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void release(List<SalePermit> permits) {
+        for(SalePermit permit : permits) {
+            saleLimitCounterRepository.decrement(permit.policy(), permit.subject(), permit.windowStart());
+        }
+    }
+
+    @Scheduled(fixedDelay = 3_600_000)
+    @Transactional
+    public void deleteClosedWindows() {
+        LocalDateTime now = LocalDateTime.now();
+
+        knownRows.values().removeIf(windowEnd -> !windowEnd.isAfter(now));
+        saleLimitCounterRepository.deleteClosedWindows(now);
+    }
+
+    static SaleLimitCounterId idOf(SalePermit permit) {
+        return new SaleLimitCounterId(permit.policy(), permit.subject(), permit.windowStart());
+    }
+}
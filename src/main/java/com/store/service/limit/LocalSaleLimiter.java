@@ -0,0 +1,113 @@
+package com.store.service.limit;
+
+import com.store.exception.sale.SaleLimitExceededException;
+import com.store.service.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Single-node stand-in: counters live in memory, seeded from the sales table on first touch
+@Component
+@ConditionalOnProperty(prefix = "store.sales.limit", name = "backend", havingValue = "LOCAL", matchIfMissing = true)
+public class LocalSaleLimiter implements SaleLimiter {
+
+    private final SaleLimitSeeder saleLimitSeeder;
+    private final ConcurrentMap<Key, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LocalSaleLimiter(SaleLimitSeeder saleLimitSeeder) {
+        this.saleLimitSeeder = saleLimitSeeder;
+    }
+
+    @Override
+    public void reserve(List<SalePermit> permits) {
+        List<AtomicInteger> taken = new ArrayList<>(permits.size());
+
+        for(SalePermit permit : permits) {
+            AtomicInteger counter = counterFor(permit);
+
+            if(!tryIncrement(counter, permit.limit())) {
+                taken.forEach(AtomicInteger::decrementAndGet);
+                throw new SaleLimitExceededException("Sale limit '" + permit.policy() + "' reached for " + permit.subject());
+            }
+            taken.add(counter);
+        }
+
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if(status != STATUS_COMMITTED) {
+                        taken.forEach(AtomicInteger::decrementAndGet);
+                    }
+                }
+            });
+        }
+    }
+
+    // A cancel that rolls back keeps its sale, so the slots are only given back once it commits
+    @Override
+    public void release(List<SalePermit> permits) {
+        AfterCommit.run(() -> decrement(permits));
+    }
+
+    private void decrement(List<SalePermit> permits) {
+        for(SalePermit permit : permits) {
+            counters.computeIfPresent(Key.of(permit), (key, counter) -> {
+                counter.updateAndGet(used -> Math.max(used - 1, 0));
+                return counter;
+            });
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictClosedWindows() {
+        LocalDateTime now = LocalDateTime.now();
+        counters.keySet().removeIf(key -> !key.windowEnd().isAfter(now));
+    }
+
+    // Seeded outside the map: the query must not run under the bin lock that other keys hash to.
+    // When two threads seed the same key, the first counter in wins and the other seed is dropped
+    private AtomicInteger counterFor(SalePermit permit) {
+        Key key = Key.of(permit);
+        AtomicInteger counter = counters.get(key);
+        if(counter != null) {
+            return counter;
+        }
+
+        AtomicInteger seeded = new AtomicInteger(saleLimitSeeder.seed(permit));
+        AtomicInteger existing = counters.putIfAbsent(key, seeded);
+
+        return existing == null ? seeded : existing;
+    }
+
+    private boolean tryIncrement(AtomicInteger counter, int limit) {
+        while(true) {
+            int used = counter.get();
+
+            if(used >= limit) {
+                return false;
+            }
+            if(counter.compareAndSet(used, used + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private record Key(String policy, String subject, LocalDateTime windowStart, LocalDateTime windowEnd) {
+
+        static Key of(SalePermit permit) {
+            return new Key(permit.policy(), permit.subject(), permit.windowStart(), permit.windowEnd());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.store.service.limit;
+
+import com.store.repository.SaleLimitCounterRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "store.sales.limit", name = "backend", havingValue = "DATABASE")
+public class SaleLimitCounterInitializer {
+
+    private final SaleLimitCounterRepository saleLimitCounterRepository;
+    private final SaleLimitSeeder saleLimitSeeder;
+
+    @Autowired
+    public SaleLimitCounterInitializer(SaleLimitCounterRepository saleLimitCounterRepository, SaleLimitSeeder saleLimitSeeder) {
+        this.saleLimitCounterRepository = saleLimitCounterRepository;
+        this.saleLimitSeeder = saleLimitSeeder;
+    }
+
+    // Committed on its own so the checkout transaction never holds gap locks on a missing counter row;
+    // INSERT IGNORE lets concurrent nodes create the same row without failing
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void createIfAbsent(SalePermit permit) {
+        if(saleLimitCounterRepository.existsById(DatabaseSaleLimiter.idOf(permit))) {
+            return;
+        }
+
+        saleLimitCounterRepository.insertIfAbsent(permit.policy(), permit.subject(),
+                permit.windowStart(), permit.windowEnd(), saleLimitSeeder.seed(permit));
+    }
+}
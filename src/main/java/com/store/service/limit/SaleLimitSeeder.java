@@ -0,0 +1,36 @@
+package com.store.service.limit;
+
+import com.store.repository.SaleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Starting value for a counter nobody has touched yet: sales already recorded in the window
+@Component
+public class SaleLimitSeeder {
+
+    private final SaleRepository saleRepository;
+
+    @Autowired
+    public SaleLimitSeeder(SaleRepository saleRepository) {
+        this.saleRepository = saleRepository;
+    }
+
+    public int seed(SalePermit permit) {
+        // Sales only carry a date, so sub-day windows start empty
+        if(!permit.isDayAligned()) {
+            return 0;
+        }
+
+        LocalDate from = permit.windowStart().toLocalDate();
+        LocalDate to = permit.windowEnd().toLocalDate();
+
+        return switch(permit.scope()) {
+            case CUSTOMER -> saleRepository.countActiveSalesByCustomerBetween(permit.customerId(), from, to);
+            case PRODUCT -> saleRepository.countActiveSalesWithProductBetween(permit.productId(), from, to);
+            case CUSTOMER_PRODUCT -> saleRepository.countActiveSalesByCustomerWithProductBetween(
+                    permit.customerId(), permit.productId(), from, to);
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.store.service.limit;
+
+import com.store.config.SaleLimitProperties;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@Timed(value = "store.service", histogram = true)
+public class SaleLimitService {
+
+    private final SaleLimiter saleLimiter;
+    private final SaleLimitProperties saleLimitProperties;
+
+    @Autowired
+    public SaleLimitService(SaleLimiter saleLimiter, SaleLimitProperties saleLimitProperties) {
+        this.saleLimiter = saleLimiter;
+        this.saleLimitProperties = saleLimitProperties;
+    }
+
+    // Returns the permits taken, so a sale dropped before it is written can give back exactly those slots
+    public List<SalePermit> reserve(Long customerId, Collection<Long> productIds) {
+        List<SalePermit> permits = permitsFor(customerId, productIds, LocalDateTime.now());
+
+        if(!permits.isEmpty()) {
+            saleLimiter.reserve(permits);
+        }
+        return permits;
+    }
+
+    public void release(List<SalePermit> permits) {
+        if(!permits.isEmpty()) {
+            saleLimiter.release(permits);
+        }
+    }
+
+    // The sale time is not stored, so only day-aligned windows can be matched to a canceled sale
+    public void release(Long customerId, Collection<Long> productIds, LocalDate saleDate) {
+        List<SalePermit> permits = permitsFor(customerId, productIds, saleDate.atStartOfDay()).stream()
+                .filter(SalePermit::isDayAligned)
+                .toList();
+
+        if(!permits.isEmpty()) {
+            saleLimiter.release(permits);
+        }
+    }
+
+    // Fixed windows aligned on local time, so a one-day window runs from midnight to midnight.
+    // Permits are sorted so concurrent checkouts always take counter rows in the same order
+    List<SalePermit> permitsFor(Long customerId, Collection<Long> productIds, LocalDateTime at) {
+        List<SalePermit> permits = new ArrayList<>();
+
+        for(SaleLimitProperties.Policy policy : saleLimitProperties.policies()) {
+            long windowSeconds = policy.window().toSeconds();
+            long startSecond = Math.floorDiv(at.toEpochSecond(ZoneOffset.UTC), windowSeconds) * windowSeconds;
+            LocalDateTime windowStart = LocalDateTime.ofEpochSecond(startSecond, 0, ZoneOffset.UTC);
+            LocalDateTime windowEnd = windowStart.plusSeconds(windowSeconds);
+
+            switch(policy.scope()) {
+                case CUSTOMER -> permits.add(new SalePermit(policy.name(), policy.scope(), customerId, null,
+                        windowStart, windowEnd, policy.limit()));
+                case PRODUCT, CUSTOMER_PRODUCT -> {
+                    for(Long productId : productIds) {
+                        permits.add(new SalePermit(policy.name(), policy.scope(), customerId, productId,
+                                windowStart, windowEnd, policy.limit()));
+                    }
+                }
+            }
+        }
+
+        permits.sort(Comparator.comparing(SalePermit::policy).thenComparing(SalePermit::subject));
+        return permits;
+    }
+}
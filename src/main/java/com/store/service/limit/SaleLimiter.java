@@ -0,0 +1,12 @@
+package com.store.service.limit;
+
+import java.util.List;
+
+public interface SaleLimiter {
+
+    // Takes one slot under every permit or none of them; throws SaleLimitExceededException when any window is full.
+    // Slots taken inside a transaction are given back if it rolls back
+    void reserve(List<SalePermit> permits);
+
+    void release(List<SalePermit> permits);
+}
@@ -0,0 +1,32 @@
+package com.store.service.limit;
+
+import com.store.enums.SaleLimitScope;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// One slot of one policy for one subject (customer, product or both) in one fixed window
+public record SalePermit(
+        String policy,
+        SaleLimitScope scope,
+        Long customerId,
+        Long productId,
+        LocalDateTime windowStart,
+        LocalDateTime windowEnd,
+        int limit
+) {
+
+    public String subject() {
+        return switch(scope) {
+            case CUSTOMER -> "customer:" + customerId;
+            case PRODUCT -> "product:" + productId;
+            case CUSTOMER_PRODUCT -> "customer:" + customerId + ":product:" + productId;
+        };
+    }
+
+    // Windows that start at midnight and span whole days can be rebuilt from the sales table
+    public boolean isDayAligned() {
+        return windowStart.toLocalTime().equals(LocalTime.MIDNIGHT)
+                && windowEnd.toLocalTime().equals(LocalTime.MIDNIGHT);
+    }
+}
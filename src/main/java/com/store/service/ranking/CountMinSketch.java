@@ -0,0 +1,65 @@
+package com.store.service.ranking;
+
+import java.util.Arrays;
+
+// Fixed-size frequency table: every key is counted in one cell per row and read back as the minimum over its rows.
+// With width w and depth d an estimate never undercounts and overcounts by more than e/w of the total
+// only with probability e^-d, as long as no key is removed more than it was added
+public final class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x85EBCA77C2B2AE63L, 0x27D4EB2F165667C5L
+    };
+
+    private final int width;
+    private final long[][] counts;
+
+    public CountMinSketch(int width, int depth) {
+        if(width < 1 || depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("A sketch needs a positive width and a depth between 1 and " + SEEDS.length);
+        }
+
+        this.width = width;
+        this.counts = new long[depth][width];
+    }
+
+    public void add(long key, long delta) {
+        for(int row = 0; row < counts.length; row++) {
+            counts[row][cell(key, row)] += delta;
+        }
+    }
+
+    public long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for(int row = 0; row < counts.length; row++) {
+            estimate = Math.min(estimate, counts[row][cell(key, row)]);
+        }
+
+        return Math.max(estimate, 0);
+    }
+
+    // Sketches of the same shape are linear, so an expired bucket is taken out of a window total cell by cell
+    public void subtract(CountMinSketch other) {
+        for(int row = 0; row < counts.length; row++) {
+            for(int column = 0; column < width; column++) {
+                counts[row][column] -= other.counts[row][column];
+            }
+        }
+    }
+
+    public void clear() {
+        for(long[] row : counts) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    private int cell(long key, int row) {
+        long hash = (key + 1) * SEEDS[row];
+        hash ^= hash >>> 32;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 29;
+
+        return (int) Math.floorMod(hash, (long) width);
+    }
+}
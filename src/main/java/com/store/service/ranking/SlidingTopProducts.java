@@ -0,0 +1,123 @@
+package com.store.service.ranking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Units sold per product over a sliding window, in bounded memory. The window is a ring of bucket sketches plus
+// their running sum; a bucket leaving the window is subtracted from the sum and reused. Products whose estimate
+// is among the highest are kept as candidates, so a query only ranks those instead of every product ever sold.
+// The window slides one bucket at a time, so it covers between length - bucketLength and length of history
+public class SlidingTopProducts {
+
+    private final long bucketMillis;
+    private final CountMinSketch[] buckets;
+    private final long[] bucketEpochs;
+    private final CountMinSketch total;
+    private final int capacity;
+    private final Set<Long> candidates = new HashSet<>();
+    private long currentEpoch = Long.MIN_VALUE;
+
+    public SlidingTopProducts(long lengthMillis, int bucketCount, int sketchWidth, int sketchDepth, int capacity) {
+        this.bucketMillis = lengthMillis / bucketCount;
+        this.buckets = new CountMinSketch[bucketCount];
+        this.bucketEpochs = new long[bucketCount];
+        for(int i = 0; i < bucketCount; i++) {
+            buckets[i] = new CountMinSketch(sketchWidth, sketchDepth);
+        }
+        this.total = new CountMinSketch(sketchWidth, sketchDepth);
+        this.capacity = capacity;
+    }
+
+    public synchronized void add(long productId, long units, long nowMillis) {
+        long epoch = advance(nowMillis);
+        buckets[slot(epoch)].add(productId, units);
+        total.add(productId, units);
+
+        candidates.add(productId);
+        if(candidates.size() > 2 * capacity) {
+            prune();
+        }
+    }
+
+    // Units are taken back from the bucket they were counted in; once that bucket has left the window there is nothing to undo
+    public synchronized void remove(long productId, long units, long recordedAtMillis, long nowMillis) {
+        long current = advance(nowMillis);
+        long epoch = Math.floorDiv(recordedAtMillis, bucketMillis);
+
+        if(epoch > current || bucketEpochs[slot(epoch)] != epoch) {
+            return;
+        }
+
+        buckets[slot(epoch)].add(productId, -units);
+        total.add(productId, -units);
+    }
+
+    public synchronized List<ProductUnits> top(int limit, long nowMillis) {
+        advance(nowMillis);
+
+        List<ProductUnits> ranked = new ArrayList<>(candidates.size());
+        for(Long productId : candidates) {
+            long units = total.estimate(productId);
+            if(units > 0) {
+                ranked.add(new ProductUnits(productId, units));
+            }
+        }
+        ranked.sort(Comparator.comparingLong(ProductUnits::units).reversed().thenComparing(ProductUnits::productId));
+
+        return ranked.size() > limit ? List.copyOf(ranked.subList(0, limit)) : ranked;
+    }
+
+    private long advance(long nowMillis) {
+        long epoch = Math.floorDiv(nowMillis, bucketMillis);
+        if(epoch <= currentEpoch) {
+            return currentEpoch;
+        }
+
+        if(currentEpoch == Long.MIN_VALUE || epoch - currentEpoch >= buckets.length) {
+            for(CountMinSketch bucket : buckets) {
+                bucket.clear();
+            }
+            total.clear();
+            candidates.clear();
+
+            for(long live = epoch - buckets.length + 1; live <= epoch; live++) {
+                bucketEpochs[slot(live)] = live;
+            }
+        } else {
+            for(long next = currentEpoch + 1; next <= epoch; next++) {
+                CountMinSketch bucket = buckets[slot(next)];
+                total.subtract(bucket);
+                bucket.clear();
+                bucketEpochs[slot(next)] = next;
+            }
+        }
+        currentEpoch = epoch;
+
+        return epoch;
+    }
+
+    // Keeps the best half; a product dropped here comes back with its full window estimate on its next sale
+    private void prune() {
+        List<Map.Entry<Long, Long>> ranked = new ArrayList<>(candidates.size());
+        for(Long productId : candidates) {
+            ranked.add(Map.entry(productId, total.estimate(productId)));
+        }
+        ranked.sort(Map.Entry.<Long, Long>comparingByValue().reversed());
+
+        candidates.clear();
+        for(Map.Entry<Long, Long> entry : ranked.subList(0, capacity)) {
+            candidates.add(entry.getKey());
+        }
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) buckets.length);
+    }
+
+    public record ProductUnits(long productId, long units) {
+    }
+}
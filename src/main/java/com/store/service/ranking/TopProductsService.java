@@ -0,0 +1,50 @@
+package com.store.service.ranking;
+
+import com.store.config.TopProductsProperties;
+import com.store.dto.product.ProductResponseDTO;
+import com.store.dto.product.TopProductResponseDTO;
+import com.store.enums.TopProductsWindow;
+import com.store.service.ProductCatalog;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Timed(value = "store.service", histogram = true)
+public class TopProductsService {
+
+    private final TopSellingTracker topSellingTracker;
+    private final ProductCatalog productCatalog;
+    private final TopProductsProperties topProductsProperties;
+
+    @Autowired
+    public TopProductsService(TopSellingTracker topSellingTracker, ProductCatalog productCatalog,
+                              TopProductsProperties topProductsProperties) {
+        this.topSellingTracker = topSellingTracker;
+        this.productCatalog = productCatalog;
+        this.topProductsProperties = topProductsProperties;
+    }
+
+    // Names come from the product cache; products deleted since they were sold are left out
+    public List<TopProductResponseDTO> getTopProducts(TopProductsWindow window, Integer limit) {
+        int size = limit == null ? topProductsProperties.defaultLimit() : Math.clamp(limit, 1, topProductsProperties.maxLimit());
+        List<SlidingTopProducts.ProductUnits> ranked = topSellingTracker.top(window, size);
+
+        Map<Long, ProductResponseDTO> products = productCatalog.getProducts(
+                ranked.stream().map(SlidingTopProducts.ProductUnits::productId).toList());
+
+        List<TopProductResponseDTO> top = new ArrayList<>(ranked.size());
+        for(SlidingTopProducts.ProductUnits units : ranked) {
+            ProductResponseDTO product = products.get(units.productId());
+            if(product != null) {
+                top.add(new TopProductResponseDTO(product.id(), product.name(), product.brand(), units.units()));
+            }
+        }
+
+        return top;
+    }
+}
@@ -0,0 +1,101 @@
+package com.store.service.ranking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.store.config.TopProductsProperties;
+import com.store.entity.Sale;
+import com.store.entity.SaleDetail;
+import com.store.enums.TopProductsWindow;
+import com.store.service.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Live units-sold ranking per window, fed by checkout and cancel once their transaction commits.
+// Counts are per node and approximate; daily_sales_aggregate holds the exact figures
+@Component
+public class TopSellingTracker {
+
+    private final Map<TopProductsWindow, SlidingTopProducts> windows = new EnumMap<>(TopProductsWindow.class);
+    private final Cache<Long, Long> recordedAt;
+
+    @Autowired
+    public TopSellingTracker(TopProductsProperties topProductsProperties) {
+        Duration longest = Duration.ZERO;
+        for(TopProductsWindow window : TopProductsWindow.values()) {
+            windows.put(window, new SlidingTopProducts(window.length().toMillis(), window.buckets(),
+                    topProductsProperties.sketchWidth(), topProductsProperties.sketchDepth(), topProductsProperties.candidates()));
+            if(window.length().compareTo(longest) > 0) {
+                longest = window.length();
+            }
+        }
+
+        // When each recent sale was counted, so a cancel is taken out of the bucket that holds it
+        this.recordedAt = Caffeine.newBuilder()
+                .maximumSize(topProductsProperties.trackedSales())
+                .expireAfterWrite(longest)
+                .build();
+    }
+
+    public void recordAfterCommit(Collection<Sale> sales) {
+        List<SaleUnits> units = unitsOf(sales);
+
+        AfterCommit.run(() -> {
+            long now = System.currentTimeMillis();
+            for(SaleUnits sale : units) {
+                recordedAt.put(sale.saleId(), now);
+                for(SlidingTopProducts window : windows.values()) {
+                    sale.lines().forEach((productId, quantity) -> window.add(productId, quantity, now));
+                }
+            }
+        });
+    }
+
+    // Cancels of sales counted too long ago, or on another node, leave the ranking as it is
+    public void removeAfterCommit(Collection<Sale> sales) {
+        List<SaleUnits> units = unitsOf(sales);
+
+        AfterCommit.run(() -> {
+            long now = System.currentTimeMillis();
+            for(SaleUnits sale : units) {
+                Long countedAt = recordedAt.getIfPresent(sale.saleId());
+                if(countedAt == null) {
+                    continue;
+                }
+
+                recordedAt.invalidate(sale.saleId());
+                for(SlidingTopProducts window : windows.values()) {
+                    sale.lines().forEach((productId, quantity) -> window.remove(productId, quantity, countedAt, now));
+                }
+            }
+        });
+    }
+
+    public List<SlidingTopProducts.ProductUnits> top(TopProductsWindow window, int limit) {
+        return windows.get(window).top(limit, System.currentTimeMillis());
+    }
+
+    // Lines are read inside the transaction; the session may already be gone when the callback runs
+    private List<SaleUnits> unitsOf(Collection<Sale> sales) {
+        List<SaleUnits> units = new ArrayList<>(sales.size());
+        for(Sale sale : sales) {
+            Map<Long, Long> lines = new HashMap<>();
+            for(SaleDetail detail : sale.getSaleDetails()) {
+                lines.merge(detail.getProduct().getId(), (long) detail.getQuantity(), Long::sum);
+            }
+            units.add(new SaleUnits(sale.getId(), lines));
+        }
+
+        return units;
+    }
+
+    private record SaleUnits(Long saleId, Map<Long, Long> lines) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.store.service.report;
+
+import com.store.dto.report.DailyProductSalesDTO;
+import com.store.entity.Sale;
+import com.store.entity.SaleDetail;
+import com.store.repository.DailySalesAggregateRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Keeps daily_sales_aggregate in step inside the writing transaction. Rows are touched in date and product order,
+// so concurrent writers lock them in the same order
+@Component
+public class DailySalesAggregator {
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::saleDate).thenComparing(Key::productId);
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private final DailySalesAggregateRepository dailySalesAggregateRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public DailySalesAggregator(DailySalesAggregateRepository dailySalesAggregateRepository) {
+        this.dailySalesAggregateRepository = dailySalesAggregateRepository;
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordSales(Collection<Sale> sales) {
+        Map<Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+
+        for(Sale sale : sales) {
+            Set<Long> productsInSale = new HashSet<>();
+
+            for(SaleDetail detail : sale.getSaleDetails()) {
+                Long productId = detail.getProduct().getId();
+                Delta delta = deltas.computeIfAbsent(new Key(sale.getSaleDate(), productId), key -> new Delta());
+
+                delta.units += detail.getQuantity();
+                delta.revenue = delta.revenue.add(detail.getPrice().multiply(BigDecimal.valueOf(detail.getQuantity())));
+                if(productsInSale.add(productId)) {
+                    delta.saleCount++;
+                }
+            }
+        }
+
+        List<DailyProductSalesDTO> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> rows.add(
+                new DailyProductSalesDTO(key.saleDate(), key.productId(), delta.units, delta.revenue, delta.saleCount)));
+        add(rows);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void removeSales(Collection<Long> saleIds) {
+        dailySalesAggregateRepository.subtractSales(saleIds);
+    }
+
+    // Recomputes the range from the sales table, for backfills and repairs. Locking the range waits for every writer
+    // already in it to commit and holds back the rest, whatever order they take their other locks in. The sales are
+    // read only after that, so each sale is either in the rebuild or applied on top of it; other dates are untouched
+    @Transactional
+    public int rebuild(LocalDate from, LocalDate to) {
+        dailySalesAggregateRepository.lockBetween(from, to);
+        List<DailyProductSalesDTO> rows = dailySalesAggregateRepository.computeFromSalesBetween(from, to);
+
+        dailySalesAggregateRepository.deleteBetween(from, to);
+        add(rows);
+
+        return rows.size();
+    }
+
+    // One multi-row upsert per chunk. The query space limits Hibernate's auto-flush to pending aggregate changes,
+    // so the checkout's own inserts stay batched until commit
+    private void add(List<DailyProductSalesDTO> rows) {
+        for(int start = 0; start < rows.size(); start += ROWS_PER_STATEMENT) {
+            List<DailyProductSalesDTO> chunk = rows.subList(start, Math.min(start + ROWS_PER_STATEMENT, rows.size()));
+
+            StringBuilder sql = new StringBuilder("INSERT INTO daily_sales_aggregate (sale_date, product_id, units, revenue, sale_count) VALUES ");
+            for(int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+            }
+            sql.append(" ON DUPLICATE KEY UPDATE units = units + VALUES(units), revenue = revenue + VALUES(revenue), " +
+                    "sale_count = sale_count + VALUES(sale_count)");
+
+            NativeQuery<?> query = entityManager.createNativeQuery(sql.toString())
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedQuerySpace("daily_sales_aggregate");
+            int position = 1;
+            for(DailyProductSalesDTO row : chunk) {
+                query.setParameter(position++, row.date());
+                query.setParameter(position++, row.productId());
+                query.setParameter(position++, row.units());
+                query.setParameter(position++, row.revenue());
+                query.setParameter(position++, row.saleCount());
+            }
+            query.executeUpdate();
+        }
+    }
+
+    private record Key(LocalDate saleDate, Long productId) {
+    }
+
+    private static final class Delta {
+        private long units;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private long saleCount;
+    }
+}
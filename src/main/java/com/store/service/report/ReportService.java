@@ -0,0 +1,61 @@
+package com.store.service.report;
+
+import com.store.dto.report.DailyProductSalesDTO;
+import com.store.dto.report.DailySalesReportDTO;
+import com.store.exception.report.InvalidReportRangeException;
+import com.store.repository.DailySalesAggregateRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Reports read daily_sales_aggregate only, never the sales tables
+@Service
+@Timed(value = "store.service", histogram = true)
+public class ReportService {
+
+    static final int MAX_RANGE_DAYS = 366;
+
+    private final DailySalesAggregateRepository dailySalesAggregateRepository;
+    private final DailySalesAggregator dailySalesAggregator;
+
+    @Autowired
+    public ReportService(DailySalesAggregateRepository dailySalesAggregateRepository, DailySalesAggregator dailySalesAggregator) {
+        this.dailySalesAggregateRepository = dailySalesAggregateRepository;
+        this.dailySalesAggregator = dailySalesAggregator;
+    }
+
+    public List<DailySalesReportDTO> getDailySales(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+
+        return dailySalesAggregateRepository.findDailyTotals(from, to);
+    }
+
+    public List<DailyProductSalesDTO> getDailyProductSales(LocalDate from, LocalDate to, Long productId) {
+        checkRange(from, to);
+
+        if(productId == null) {
+            return dailySalesAggregateRepository.findProductRows(from, to);
+        }
+
+        return dailySalesAggregateRepository.findProductRows(productId, from, to);
+    }
+
+    public int rebuildDailySales(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+
+        return dailySalesAggregator.rebuild(from, to);
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if(from.isAfter(to)) {
+            throw new InvalidReportRangeException("Report start " + from + " is after its end " + to);
+        }
+        if(ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new InvalidReportRangeException("A report covers at most " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.store.service.stock;
+
+import com.store.dto.product.StockLevelDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LoggingLowStockListener implements LowStockListener {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingLowStockListener.class);
+
+    @Override
+    public void onLowStock(StockLevelDTO level) {
+        log.warn("Product {} is low on stock: {} left, reorder threshold {}",
+                level.productId(), level.stock(), level.reorderThreshold());
+    }
+
+    @Override
+    public void onRestocked(StockLevelDTO level) {
+        log.info("Product {} is back above its reorder threshold: {} in stock", level.productId(), level.stock());
+    }
+}
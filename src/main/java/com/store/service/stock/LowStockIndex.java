@@ -0,0 +1,189 @@
+package com.store.service.stock;
+
+import com.store.dto.product.StockLevelDTO;
+import com.store.entity.Sale;
+import com.store.entity.SaleDetail;
+import com.store.repository.ProductRepository;
+import com.store.service.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+// Stock levels of every product with a reorder threshold, plus the subset at or below it kept sorted by stock,
+// so listing low products costs O(k) and never scans the catalog. Stock writes on this node are applied as
+// deltas after commit; the periodic resync picks up writes made by other nodes. A resync never touches a product
+// whose write is still in flight or that changed after the snapshot was started, so a delta is never applied twice
+// and a stale snapshot never overwrites a newer level
+@Component
+public class LowStockIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockIndex.class);
+
+    private static final Comparator<StockLevelDTO> LOWEST_FIRST = Comparator.comparingInt(StockLevelDTO::stock)
+            .thenComparing(StockLevelDTO::productId);
+
+    private final ProductRepository productRepository;
+    private final List<LowStockListener> listeners;
+    private final Map<Long, StockLevelDTO> levels = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<StockLevelDTO> low = new ConcurrentSkipListSet<>(LOWEST_FIRST);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Long> changedAt = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LowStockIndex(ProductRepository productRepository, List<LowStockListener> listeners) {
+        this.productRepository = productRepository;
+        this.listeners = listeners;
+    }
+
+    public List<StockLevelDTO> lowStock(int limit) {
+        List<StockLevelDTO> result = new ArrayList<>(Math.min(limit, low.size()));
+        for(StockLevelDTO level : low) {
+            if(result.size() == limit) {
+                break;
+            }
+            result.add(level);
+        }
+
+        return result;
+    }
+
+    public void decrementAfterCommit(Map<Long, Integer> quantities) {
+        Map<Long, Integer> deltas = new HashMap<>();
+        quantities.forEach((productId, quantity) -> deltas.put(productId, -quantity));
+
+        afterCommit(deltas.keySet(), () -> applyDeltas(deltas));
+    }
+
+    public void restoreAfterCommit(Collection<Sale> sales) {
+        Map<Long, Integer> deltas = new HashMap<>();
+        for(Sale sale : sales) {
+            for(SaleDetail detail : sale.getSaleDetails()) {
+                deltas.merge(detail.getProduct().getId(), detail.getQuantity(), Integer::sum);
+            }
+        }
+
+        afterCommit(deltas.keySet(), () -> applyDeltas(deltas));
+    }
+
+    public void putAfterCommit(Collection<StockLevelDTO> updated) {
+        List<StockLevelDTO> copy = List.copyOf(updated);
+
+        afterCommit(copy.stream().map(StockLevelDTO::productId).toList(), () -> {
+            List<Runnable> events = new ArrayList<>();
+            for(StockLevelDTO level : copy) {
+                update(level.productId(), current -> level, events);
+            }
+            events.forEach(Runnable::run);
+        });
+    }
+
+    public void removeAfterCommit(Long productId) {
+        afterCommit(List.of(productId), () -> update(productId, current -> null, new ArrayList<>()));
+    }
+
+    // The first run fills the index at startup
+    @Scheduled(initialDelay = 0, fixedDelay = 300_000)
+    public void resync() {
+        long startedAt = sequence.incrementAndGet();
+        List<Runnable> events = new ArrayList<>();
+        Set<Long> monitored = new HashSet<>();
+
+        for(StockLevelDTO level : productRepository.findMonitoredStockLevels()) {
+            monitored.add(level.productId());
+            update(level.productId(), current -> isSettled(level.productId(), startedAt) ? level : current, events);
+        }
+        for(Long productId : levels.keySet()) {
+            if(!monitored.contains(productId)) {
+                update(productId, current -> isSettled(productId, startedAt) ? null : current, events);
+            }
+        }
+        changedAt.entrySet().removeIf(entry -> entry.getValue() < startedAt && !levels.containsKey(entry.getKey()));
+
+        events.forEach(Runnable::run);
+    }
+
+    // Products stay in flight from the write until its transaction completes: until then the snapshot may or may not
+    // hold the write that the pending callback is about to apply
+    private void afterCommit(Collection<Long> productIds, Runnable action) {
+        List<Long> ids = List.copyOf(productIds);
+        ids.forEach(productId -> inFlight.merge(productId, 1, Integer::sum));
+
+        AfterCommit.run(action, () -> ids.forEach(productId ->
+                inFlight.computeIfPresent(productId, (id, count) -> count == 1 ? null : count - 1)));
+    }
+
+    // Only called under the product's compute(), which every write to changedAt for that product also holds
+    private boolean isSettled(Long productId, long snapshotStartedAt) {
+        return !inFlight.containsKey(productId) && changedAt.getOrDefault(productId, 0L) < snapshotStartedAt;
+    }
+
+    private void applyDeltas(Map<Long, Integer> deltas) {
+        List<Runnable> events = new ArrayList<>();
+        deltas.forEach((productId, delta) -> update(productId, current -> current == null ? null
+                : new StockLevelDTO(productId, current.stock() + delta, current.reorderThreshold()), events));
+
+        events.forEach(Runnable::run);
+    }
+
+    // compute() serializes writers of the same product; the new low entry goes in before the old one comes out,
+    // so a concurrent listing never misses a product that stays low
+    private void update(Long productId, UnaryOperator<StockLevelDTO> change, List<Runnable> events) {
+        levels.compute(productId, (id, current) -> {
+            StockLevelDTO next = change.apply(current);
+            if(next != null && next.reorderThreshold() <= 0) {
+                next = null;
+            }
+
+            if(!Objects.equals(current, next)) {
+                changedAt.put(id, sequence.incrementAndGet());
+            }
+
+            boolean wasLow = current != null && current.isLow();
+            boolean isLow = next != null && next.isLow();
+
+            if(isLow) {
+                low.add(next);
+            }
+            if(wasLow && !current.equals(next)) {
+                low.remove(current);
+            }
+
+            StockLevelDTO crossed = next;
+            if(isLow && !wasLow) {
+                events.add(() -> notifyListeners(listener -> listener.onLowStock(crossed)));
+            } else if(wasLow && next != null && !isLow) {
+                events.add(() -> notifyListeners(listener -> listener.onRestocked(crossed)));
+            }
+
+            return next;
+        });
+    }
+
+    private void notifyListeners(Consumer<LowStockListener> event) {
+        for(LowStockListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch(RuntimeException e) {
+                log.error("Low stock listener {} failed", listener.getClass().getName(), e);
+            }
+        }
+    }
+}
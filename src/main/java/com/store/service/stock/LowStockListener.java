@@ -0,0 +1,13 @@
+package com.store.service.stock;
+
+import com.store.dto.product.StockLevelDTO;
+
+// Told when a product's stock crosses its reorder threshold, after the transaction that moved it has committed.
+// Called on the committing thread: implementations should hand slow work off instead of doing it inline
+public interface LowStockListener {
+
+    void onLowStock(StockLevelDTO level);
+
+    default void onRestocked(StockLevelDTO level) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.store.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class IdSequenceInitializerTest {
+
+    @Autowired
+    private IdSequenceInitializer idSequenceInitializer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void afterPropertiesSet_ShouldMoveTheSequencePastExistingRows_WhenTheTableAlreadyHoldsHigherIds() {
+        // A row written before the sequence existed, as on a database migrated from IDENTITY ids
+        transactionTemplate.executeWithoutResult(status -> entityManager.createNativeQuery(
+                "INSERT INTO products (id, name, brand, price, stock, reorder_threshold, version) " +
+                        "VALUES (100000, 'Legacy Cheese', 'Brand', 10, 5, 0, 0)").executeUpdate());
+
+        idSequenceInitializer.afterPropertiesSet();
+
+        // Read from the sequence itself: the generator may still hold a block it allocated for an earlier test
+        long next = ((Number) entityManager.createNativeQuery("SELECT NEXT VALUE FOR products_seq").getSingleResult()).longValue();
+        assertTrue(next - IdSequenceInitializer.ALLOCATION_SIZE >= 100000);
+    }
+}
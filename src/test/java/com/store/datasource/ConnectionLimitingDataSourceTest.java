@@ -0,0 +1,106 @@
+package com.store.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    @Test
+    void getConnection_ShouldTimeOut_WhenAllPermitsAreHeldByOtherThreads() throws Exception {
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(50));
+
+        try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Connection held = CompletableFuture.supplyAsync(() -> connect(dataSource), executor).join();
+            CompletableFuture<Throwable> waiting = CompletableFuture.supplyAsync(() -> {
+                try {
+                    dataSource.getConnection();
+                    return null;
+                } catch(Exception e) {
+                    return e;
+                }
+            }, executor);
+
+            assertTrue(waiting.join() instanceof SQLTransientConnectionException);
+            held.close();
+        }
+
+        assertEquals(1, dataSource.availablePermits());
+        verify(pool, times(1)).getConnection();
+    }
+
+    @Test
+    void getConnection_ShouldSkipTheQueue_WhenTheThreadAlreadyHoldsAConnection() throws Exception {
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(50));
+
+        Connection outer = dataSource.getConnection();
+        Connection nested = dataSource.getConnection();
+        nested.close();
+        assertEquals(0, dataSource.availablePermits());
+
+        outer.close();
+        outer.close();
+        assertEquals(1, dataSource.availablePermits());
+        assertTrue(outer.isClosed());
+    }
+
+    @Test
+    void getConnection_ShouldQueueAgain_WhenOnlyANestedConnectionIsStillOpen() throws Exception {
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(50));
+
+        Connection outer = dataSource.getConnection();
+        Connection nested = dataSource.getConnection();
+        outer.close();
+
+        try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Connection held = CompletableFuture.supplyAsync(() -> connect(dataSource), executor).join();
+
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            held.close();
+        }
+
+        nested.close();
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void getConnection_ShouldReleaseThePermit_WhenThePoolFails() throws Exception {
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(50));
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    private static Connection connect(DataSource dataSource) {
+        try {
+            return dataSource.getConnection();
+        } catch(Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
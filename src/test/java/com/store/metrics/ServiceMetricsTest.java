@@ -0,0 +1,125 @@
+package com.store.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.store.dto.sale.SaleRequestDTO;
+import com.store.dto.saleDetail.SaleDetailRequestDTO;
+import com.store.entity.Customer;
+import com.store.entity.Product;
+import com.store.repository.CustomerRepository;
+import com.store.repository.ProductRepository;
+import com.store.service.SaleService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,prometheus")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class ServiceMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void createNewSale_ShouldRecordTimerAndErrorCounter_WhenStockIsInsufficient() throws Exception {
+        Product product = productRepository.save(new Product("Metrics Cheese", "La Serenisima", 6000, 1));
+        Customer customer = customerRepository.save(new Customer("John", "Doe", "metrics.john@gmail.com"));
+        SaleRequestDTO saleRequest = new SaleRequestDTO(
+                customer.getId(),
+                List.of(new SaleDetailRequestDTO(product.getId(), 5, BigDecimal.valueOf(6000)))
+        );
+
+        mockMvc.perform(post("/api/sales")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(saleRequest)))
+                .andExpect(status().isConflict());
+
+        Timer timer = meterRegistry.find("store.service")
+                .tags("class", SaleService.class.getName(), "method", "createNewSale",
+                        "exception", "InsufficientStockException")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+
+        assertEquals(1, meterRegistry.get("store.api.errors")
+                .tags("exception", "InsufficientStockException", "code", "INSUFFICIENT_STOCK")
+                .counter().count());
+    }
+
+    @Test
+    void getProductById_ShouldReportStatementsPerRequest_WhenTheProductIsRead() throws Exception {
+        Product product = productRepository.save(new Product("Metrics Yogurt", "La Serenisima", 900, 10));
+
+        mockMvc.perform(get("/api/products/" + product.getId()))
+                .andExpect(header().string("X-Db-Statements", "1"))
+                .andExpect(header().exists("X-Db-Time-Ms"));
+
+        DistributionSummary statements = meterRegistry.get("store.http.db.statements")
+                .tags("method", "GET", "uri", "/api/products/{id}")
+                .summary();
+        assertEquals(1, statements.count());
+        assertEquals(1, statements.totalAmount());
+        assertEquals(1, meterRegistry.get("store.http.db.time")
+                .tags("method", "GET", "uri", "/api/products/{id}")
+                .timer().count());
+    }
+
+    @Test
+    void streamAllSales_ShouldReportTheStatementsOfTheAsyncPart_WhenTheStreamCompletes() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/sales/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get("store.http.db.statements")
+                .tags("method", "GET", "uri", "/api/sales/stream")
+                .summary();
+        assertEquals(1, statements.count());
+        assertTrue(statements.totalAmount() >= 1);
+    }
+
+    @Test
+    void prometheus_ShouldExposeServiceHistograms_WhenScraped() throws Exception {
+        mockMvc.perform(get("/api/products"));
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("store_service_seconds_bucket")));
+    }
+}
@@ -0,0 +1,63 @@
+package com.store.metrics;
+
+import com.store.config.SqlTrackingProperties;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class SqlStatementTrackerTest {
+
+    @Mock
+    private SlowQueryLog slowQueryLog;
+
+    @Test
+    void afterQuery_ShouldCountStatementsAndTime_WhenARequestIsOpen() {
+        SqlStatementTracker tracker = new SqlStatementTracker(slowQueryLog, new SqlTrackingProperties(Duration.ofHours(1), 10, true));
+
+        SqlRequestStats stats = tracker.begin();
+        execute(tracker, new ExecutionInfo(), "SELECT * FROM products WHERE id = ?");
+        execute(tracker, new ExecutionInfo(), "SELECT * FROM customers WHERE id = ?");
+        tracker.end();
+
+        assertEquals(2, stats.statements());
+        assertTrue(stats.jdbcNanos() >= 0);
+        assertNull(tracker.current());
+        verify(slowQueryLog, never()).submit(anyString(), anyInt(), anyLong());
+    }
+
+    @Test
+    void afterQuery_ShouldOnlyLogSlowQueries_WhenNoRequestIsOpen() {
+        SqlStatementTracker tracker = new SqlStatementTracker(slowQueryLog, new SqlTrackingProperties(Duration.ZERO, 10, true));
+        ExecutionInfo batch = new ExecutionInfo();
+        batch.setBatch(true);
+        batch.setBatchSize(50);
+
+        execute(tracker, batch, "INSERT INTO products (name, brand, price, stock) VALUES (?, ?, ?, ?)");
+
+        assertNull(tracker.current());
+        verify(slowQueryLog).submit(eq("INSERT INTO products (name, brand, price, stock) VALUES (?, ?, ?, ?)"), eq(50), anyLong());
+    }
+
+    private void execute(SqlStatementTracker tracker, ExecutionInfo execInfo, String sql) {
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        tracker.beforeQuery(execInfo, queries);
+        tracker.afterQuery(execInfo, queries);
+    }
+}
@@ -0,0 +1,74 @@
+package com.store.service;
+
+import com.store.service.ranking.CountMinSketch;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CountMinSketchTest {
+
+    @Test
+    void estimate_ShouldNeverUndercount_WhenKeysShareCells() {
+        CountMinSketch sketch = new CountMinSketch(64, 4);
+        Map<Long, Long> exact = fill(sketch, 5_000, new Random(7));
+
+        for(Map.Entry<Long, Long> entry : exact.entrySet()) {
+            assertTrue(sketch.estimate(entry.getKey()) >= entry.getValue());
+        }
+    }
+
+    // Width 2048 and depth 5: an estimate exceeds the true count by more than e/2048 of the stream
+    // with probability at most e^-5 (about 0.7%)
+    @Test
+    void estimate_ShouldStayWithinTheErrorBound_ForAlmostEveryKey() {
+        CountMinSketch sketch = new CountMinSketch(2048, 5);
+        Map<Long, Long> exact = fill(sketch, 20_000, new Random(11));
+
+        long total = exact.values().stream().mapToLong(Long::longValue).sum();
+        double bound = Math.E / 2048 * total;
+
+        long outside = exact.entrySet().stream()
+                .filter(entry -> sketch.estimate(entry.getKey()) - entry.getValue() > bound)
+                .count();
+
+        assertTrue(outside <= exact.size() * Math.exp(-5), outside + " keys over the bound of " + bound);
+    }
+
+    @Test
+    void subtract_ShouldLeaveExactlyTheOtherCounts_WhenABucketIsTakenOut() {
+        CountMinSketch kept = new CountMinSketch(256, 3);
+        CountMinSketch expired = new CountMinSketch(256, 3);
+        CountMinSketch total = new CountMinSketch(256, 3);
+        Random random = new Random(3);
+
+        for(int i = 0; i < 2_000; i++) {
+            long key = random.nextInt(500);
+            long units = 1 + random.nextInt(5);
+            (i % 2 == 0 ? kept : expired).add(key, units);
+            total.add(key, units);
+        }
+
+        total.subtract(expired);
+
+        for(long key = 0; key < 500; key++) {
+            assertEquals(kept.estimate(key), total.estimate(key));
+        }
+    }
+
+    private Map<Long, Long> fill(CountMinSketch sketch, int keys, Random random) {
+        Map<Long, Long> exact = new HashMap<>();
+        for(int i = 0; i < keys * 5; i++) {
+            long key = random.nextInt(keys);
+            long units = 1 + random.nextInt(10);
+            sketch.add(key, units);
+            exact.merge(key, units, Long::sum);
+        }
+
+        return exact;
+    }
+}
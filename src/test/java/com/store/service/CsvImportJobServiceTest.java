@@ -0,0 +1,151 @@
+package com.store.service;
+
+import com.store.config.CsvImportProperties;
+import com.store.dto.csv.CsvImportJobResponseDTO;
+import com.store.enums.CsvImportJobStatus;
+import com.store.enums.CsvImportMode;
+import com.store.exception.csv.CsvImportJobNotFoundException;
+import com.store.exception.csv.CsvImportRejectedException;
+import com.store.exception.csv.InvalidCsvImportFileException;
+import com.store.service.csv.CsvImportJob;
+import com.store.service.csv.CsvImportJobService;
+import com.store.service.csv.CsvImportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class CsvImportJobServiceTest {
+
+    private static final CsvImportProperties PROPERTIES = new CsvImportProperties(1000, 1, 1, 10, Duration.ofHours(1), 2, 2, 4, null);
+
+    @Mock
+    private CsvImportService csvImportService;
+
+    private final MockMultipartFile file = new MockMultipartFile(
+            "file",
+            "products.csv",
+            "text/csv",
+            "name,brand,price,stock\nLaptop,HP,1200.50,10".getBytes()
+    );
+
+    @Test
+    void submitProductsImport_ShouldReturnAQueuedJob_BeforeTheImportRuns() {
+        List<Runnable> pendingTasks = new ArrayList<>();
+        CsvImportJobService csvImportJobService = new CsvImportJobService(csvImportService, PROPERTIES, pendingTasks::add);
+
+        CsvImportJobResponseDTO response = csvImportJobService.submitProductsImport(file, true, CsvImportMode.UPSERT);
+
+        assertEquals(CsvImportJobStatus.QUEUED, response.status());
+        assertEquals(1, pendingTasks.size());
+        verifyNoInteractions(csvImportService);
+    }
+
+    @Test
+    void getJob_ShouldReportProgress_WhenImportHasFinished() throws Exception {
+        CsvImportJobService csvImportJobService = new CsvImportJobService(csvImportService, PROPERTIES, Runnable::run);
+
+        doAnswer(invocation -> {
+            CsvImportJob job = invocation.getArgument(2);
+            job.recordImported(1);
+            job.recordRejected(3L, "Expected 4 columns but found 2");
+            return null;
+        }).when(csvImportService).importProducts(any(InputStream.class), anyBoolean(), any(CsvImportJob.class));
+
+        String jobId = csvImportJobService.submitProductsImport(file, true, CsvImportMode.UPSERT).id();
+        CsvImportJobResponseDTO response = csvImportJobService.getJob(jobId);
+
+        assertEquals(CsvImportJobStatus.COMPLETED, response.status());
+        assertEquals(2, response.rowsProcessed());
+        assertEquals(1, response.rowsImported());
+        assertEquals(1, response.rowsRejected());
+        assertEquals("Expected 4 columns but found 2", response.rejectedRows().get(0).reason());
+    }
+
+    @Test
+    void getJob_ShouldReportFailure_WhenImportThrows() throws Exception {
+        CsvImportJobService csvImportJobService = new CsvImportJobService(csvImportService, PROPERTIES, Runnable::run);
+
+        doThrow(new RuntimeException("Error reading CSV file"))
+                .when(csvImportService).importProducts(any(InputStream.class), anyBoolean(), any(CsvImportJob.class));
+
+        String jobId = csvImportJobService.submitProductsImport(file, true, CsvImportMode.UPSERT).id();
+        CsvImportJobResponseDTO response = csvImportJobService.getJob(jobId);
+
+        assertEquals(CsvImportJobStatus.FAILED, response.status());
+        assertEquals("Error reading CSV file", response.errorMessage());
+    }
+
+    @Test
+    void submitProductsImport_ShouldThrowAnException_WhenExecutorIsFull() {
+        CsvImportJobService csvImportJobService = new CsvImportJobService(csvImportService, PROPERTIES, task -> {
+            throw new RejectedExecutionException();
+        });
+
+        assertThrows(CsvImportRejectedException.class,
+                () -> csvImportJobService.submitProductsImport(file, true, CsvImportMode.UPSERT));
+    }
+
+    @Test
+    void getJob_ShouldThrowAnException_WhenJobNotExist() {
+        CsvImportJobService csvImportJobService = new CsvImportJobService(csvImportService, PROPERTIES, Runnable::run);
+
+        assertThrows(CsvImportJobNotFoundException.class,
+                () -> csvImportJobService.getJob("missing"));
+    }
+
+    @Test
+    void submitLocalProductsImport_ShouldImportTheFile_WhenItIsInsideTheImportDirectory(@TempDir Path importDirectory) throws Exception {
+        Files.writeString(importDirectory.resolve("catalog.csv"), "Laptop,HP,1200.50,10");
+        CsvImportProperties properties = new CsvImportProperties(1000, 1, 1, 10, Duration.ofHours(1), 2, 2, 4, importDirectory);
+        CsvImportJobService csvImportJobService = new CsvImportJobService(csvImportService, properties, Runnable::run);
+
+        CsvImportJobResponseDTO response = csvImportJobService.submitLocalProductsImport("catalog.csv", false, CsvImportMode.UPSERT);
+
+        assertEquals(CsvImportJobStatus.COMPLETED, csvImportJobService.getJob(response.id()).status());
+        verify(csvImportService).importProductsFromFile(eq(importDirectory.resolve("catalog.csv").toAbsolutePath().normalize()),
+                eq(false), any(CsvImportJob.class));
+    }
+
+    @Test
+    void submitLocalProductsImport_ShouldThrowAnException_WhenFileIsOutsideTheImportDirectory(@TempDir Path importDirectory) throws Exception {
+        Files.writeString(importDirectory.resolve("secret.csv"), "Laptop,HP,1200.50,10");
+        Path exposedDirectory = Files.createDirectory(importDirectory.resolve("exposed"));
+        CsvImportProperties properties = new CsvImportProperties(1000, 1, 1, 10, Duration.ofHours(1), 2, 2, 4, exposedDirectory);
+        CsvImportJobService csvImportJobService = new CsvImportJobService(csvImportService, properties, Runnable::run);
+
+        assertThrows(InvalidCsvImportFileException.class,
+                () -> csvImportJobService.submitLocalProductsImport("../secret.csv", false, CsvImportMode.UPSERT));
+
+        verifyNoInteractions(csvImportService);
+    }
+
+    @Test
+    void submitLocalProductsImport_ShouldThrowAnException_WhenLocalImportsAreDisabled() {
+        CsvImportJobService csvImportJobService = new CsvImportJobService(csvImportService, PROPERTIES, Runnable::run);
+
+        assertThrows(InvalidCsvImportFileException.class,
+                () -> csvImportJobService.submitLocalProductsImport("catalog.csv", false, CsvImportMode.UPSERT));
+    }
+}
@@ -1,15 +1,38 @@
 package com.store.service;
 
-import com.store.repository.ProductRepository;
+import com.store.config.CsvImportProperties;
+import com.store.dto.csv.CsvImportJobResponseDTO;
+import com.store.dto.csv.CsvRowErrorDTO;
+import com.store.entity.Product;
+import com.store.enums.CsvImportMode;
+import com.store.service.csv.CsvImportJob;
 import com.store.service.csv.CsvImportService;
+import com.store.service.csv.ProductBatchWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -17,27 +40,142 @@ import static org.mockito.Mockito.verify;
 public class CsvImportServiceTest {
 
     @Mock
-    private ProductRepository productRepository;
+    private ProductBatchWriter productBatchWriter;
+
+    @Captor
+    private ArgumentCaptor<List<Product>> batchCaptor;
 
-    @InjectMocks
     private CsvImportService csvImportService;
 
+    @BeforeEach
+    void setUp() {
+        csvImportService = new CsvImportService(productBatchWriter, new CsvImportProperties(2, 1, 1, 10, Duration.ofHours(1), 2, 2, 4, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        csvImportService.shutdown();
+    }
+
+    private CsvImportJob importCsv(String csvContent, boolean hasHeader, CsvImportMode mode) throws Exception {
+        CsvImportJob job = new CsvImportJob("job", mode, 10);
+        csvImportService.importProducts(new ByteArrayInputStream(csvContent.getBytes()), hasHeader, job);
+        return job;
+    }
+
     @Test
-    void saveProductFromCsv_ShouldSaveProducts_IfCsvIsValid() {
+    void importProducts_ShouldSaveProducts_IfCsvIsValid() {
         String csvContent = "name,brand,price,stock\nLaptop,HP,1200.50,10\nMouse,Logitech,25.99,50";
-        MockMultipartFile file = new MockMultipartFile(
-                "file",
-                "products.csv",
-                "text/csv",
-                csvContent.getBytes()
-        );
 
         try {
-            csvImportService.saveProductsFromCsv(file, true);
+            importCsv(csvContent, true, CsvImportMode.INSERT);
         } catch(Exception e) {
-            System.err.println("Error in unit test 'saveProductFromCsv_ShouldSaveProducts_IfCsvIsValid': " + e);
+            System.err.println("Error in unit test 'importProducts_ShouldSaveProducts_IfCsvIsValid': " + e);
         }
 
-        verify(productRepository, times(2)).saveAll(anyList());
+        verify(productBatchWriter, times(1)).writeBatch(batchCaptor.capture());
+
+        List<Product> savedProducts = batchCaptor.getValue();
+        assertEquals(2, savedProducts.size());
+        assertEquals("Laptop", savedProducts.get(0).getName());
+        assertEquals(50, savedProducts.get(1).getStock());
+    }
+
+    @Test
+    void importProducts_ShouldWriteOneBatchPerChunk_IfCsvHasManyRows() throws Exception {
+        StringBuilder csvContent = new StringBuilder();
+        for(int i = 0; i < 5; i++) {
+            csvContent.append("Product").append(i).append(",Brand,10.0,").append(i).append('\n');
+        }
+
+        importCsv(csvContent.toString(), false, CsvImportMode.INSERT);
+
+        verify(productBatchWriter, times(3)).writeBatch(batchCaptor.capture());
+
+        List<Integer> batchSizes = new ArrayList<>();
+        for(List<Product> batch : batchCaptor.getAllValues()) {
+            batchSizes.add(batch.size());
+        }
+        batchSizes.sort(null);
+        assertEquals(List.of(1, 2, 2), batchSizes);
+    }
+
+    @Test
+    void importProducts_ShouldSkipInvalidRows_IfCsvHasMalformedLines() throws Exception {
+        String csvContent = "Laptop,HP,1200.50,10\nBroken,Row\nMouse,Logitech,not-a-price,50\nKeyboard,Logitech,45.00,30";
+
+        CsvImportJob job = importCsv(csvContent, false, CsvImportMode.INSERT);
+
+        verify(productBatchWriter, times(2)).writeBatch(anyList());
+
+        CsvImportJobResponseDTO report = job.toResponse();
+        assertEquals(4, report.rowsProcessed());
+        assertEquals(2, report.rowsImported());
+        assertEquals(2, report.rowsRejected());
+        assertEquals(Set.of(2L, 3L), report.rejectedRows().stream()
+                .map(CsvRowErrorDTO::line)
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void importProducts_ShouldThrowAnException_IfAWriterFails() {
+        String csvContent = "Laptop,HP,1200.50,10\nMouse,Logitech,25.99,50\nKeyboard,Logitech,45.00,30";
+
+        doThrow(new IllegalStateException("Connection lost")).when(productBatchWriter).writeBatch(anyList());
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> importCsv(csvContent, false, CsvImportMode.INSERT));
+
+        assertEquals("Connection lost", exception.getMessage());
+    }
+
+    @Test
+    void importProducts_ShouldUpsertBatches_IfModeIsUpsert() throws Exception {
+        String csvContent = "Laptop,HP,1200.50,10\nLaptop,HP,1100.00,8";
+
+        importCsv(csvContent, false, CsvImportMode.UPSERT);
+
+        verify(productBatchWriter, times(1)).upsertBatch(batchCaptor.capture());
+        verify(productBatchWriter, never()).writeBatch(anyList());
+        assertEquals(2, batchCaptor.getValue().size());
+    }
+
+    @Test
+    void importProducts_ShouldRetryTheChunk_IfAConcurrentWriterInsertedTheSameKey() throws Exception {
+        String csvContent = "Laptop,HP,1200.50,10";
+
+        doThrow(new DataIntegrityViolationException("uk_products_name_brand"))
+                .doNothing()
+                .when(productBatchWriter).upsertBatch(anyList());
+
+        CsvImportJob job = importCsv(csvContent, false, CsvImportMode.UPSERT);
+
+        verify(productBatchWriter, times(2)).upsertBatch(anyList());
+        assertEquals(1, job.toResponse().rowsImported());
+    }
+
+    @Test
+    void importProducts_ShouldRetryTheChunk_IfACheckoutUpdatedAProductConcurrently() throws Exception {
+        String csvContent = "Laptop,HP,1200.50,10";
+
+        doThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L))
+                .doNothing()
+                .when(productBatchWriter).upsertBatch(anyList());
+
+        CsvImportJob job = importCsv(csvContent, false, CsvImportMode.UPSERT);
+
+        verify(productBatchWriter, times(2)).upsertBatch(anyList());
+        assertEquals(1, job.toResponse().rowsImported());
+    }
+
+    @Test
+    void importProducts_ShouldFailInsteadOfHanging_WhenTheExecutorsRejectAChunk() {
+        csvImportService.shutdown();
+        CsvImportJob job = new CsvImportJob("job", CsvImportMode.INSERT, 10);
+        ByteArrayInputStream csv = new ByteArrayInputStream("Laptop,HP,1200.50,10\nMouse,Logitech,25.99,50".getBytes());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(RejectedExecutionException.class,
+                () -> csvImportService.importProducts(csv, false, job)));
+        verify(productBatchWriter, never()).writeBatch(anyList());
     }
 }
@@ -0,0 +1,99 @@
+package com.store.service;
+
+import com.store.dto.customer.CustomerResponseDTO;
+import com.store.entity.Customer;
+import com.store.exception.customer.CustomerNotFoundException;
+import com.store.mapper.CustomerMapper;
+import com.store.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerDirectoryTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private CustomerMapper customerMapper;
+
+    private CustomerDirectory customerDirectory;
+
+    private final Customer customer = Customer.builder().id(1L).name("John").lastName("Doe").email("john.doe@gmail.com").build();
+    private final CustomerResponseDTO customerResponse = new CustomerResponseDTO(1L, "John", "Doe", "john.doe@gmail.com");
+
+    @BeforeEach
+    void setUp() {
+        customerDirectory = new CustomerDirectory(customerRepository, customerMapper,
+                new ConcurrentMapCacheManager(CustomerDirectory.CUSTOMERS_CACHE, CustomerDirectory.EMAILS_CACHE));
+    }
+
+    @Test
+    void getCustomer_ShouldHitTheDatabaseOnce_WhenReadRepeatedly() {
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(customerMapper.toCustomerResponse(customer)).thenReturn(customerResponse);
+
+        assertEquals(customerResponse, customerDirectory.getCustomer(1L));
+        assertEquals(customerResponse, customerDirectory.getCustomer(1L));
+
+        verify(customerRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getCustomer_ShouldThrowAnException_WhenCustomerNotExist() {
+        when(customerRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(CustomerNotFoundException.class, () -> customerDirectory.getCustomer(9L));
+    }
+
+    @Test
+    void findIdByEmail_ShouldFillBothKeys_WhenLoadedOnce() {
+        when(customerRepository.getCustomerByEmail("john.doe@gmail.com")).thenReturn(Optional.of(customer));
+        when(customerMapper.toCustomerResponse(customer)).thenReturn(customerResponse);
+
+        assertEquals(Optional.of(1L), customerDirectory.findIdByEmail("john.doe@gmail.com"));
+        assertEquals(Optional.of(1L), customerDirectory.findIdByEmail("john.doe@gmail.com"));
+        assertEquals(customerResponse, customerDirectory.getCustomer(1L));
+
+        verify(customerRepository, times(1)).getCustomerByEmail("john.doe@gmail.com");
+        verify(customerRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void findIdByEmail_ShouldNotCacheMisses() {
+        when(customerRepository.getCustomerByEmail("new@gmail.com")).thenReturn(Optional.empty());
+
+        assertTrue(customerDirectory.findIdByEmail("new@gmail.com").isEmpty());
+        assertTrue(customerDirectory.findIdByEmail("new@gmail.com").isEmpty());
+
+        verify(customerRepository, times(2)).getCustomerByEmail("new@gmail.com");
+    }
+
+    @Test
+    void evictAfterCommit_ShouldDropBothKeys_WhenNoTransactionIsActive() {
+        when(customerRepository.getCustomerByEmail("john.doe@gmail.com")).thenReturn(Optional.of(customer));
+        when(customerMapper.toCustomerResponse(customer)).thenReturn(customerResponse);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        customerDirectory.findIdByEmail("john.doe@gmail.com");
+
+        customerDirectory.evictAfterCommit(1L, Set.of("john.doe@gmail.com"));
+        customerDirectory.findIdByEmail("john.doe@gmail.com");
+        customerDirectory.evictAfterCommit(1L, Set.of());
+        customerDirectory.getCustomer(1L);
+
+        verify(customerRepository, times(2)).getCustomerByEmail("john.doe@gmail.com");
+        verify(customerRepository, times(1)).findById(1L);
+    }
+}
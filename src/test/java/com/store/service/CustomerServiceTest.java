@@ -13,11 +13,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,6 +33,9 @@ public class CustomerServiceTest {
     @Mock
     private CustomerMapper customerMapper;
 
+    @Mock
+    private CustomerDirectory customerDirectory;
+
     @InjectMocks
     private CustomerService customerService;
 
@@ -56,31 +61,31 @@ public class CustomerServiceTest {
                 "john.doe@gmail.com"
         );
 
-        when(customerRepository.findById(customerId)).thenReturn(Optional.of(expectedCustomer));
-        when(customerMapper.toCustomerResponse(expectedCustomer)).thenReturn(expectedResponse);
+        when(customerDirectory.getCustomer(customerId)).thenReturn(expectedResponse);
 
         CustomerResponseDTO actualResponse = customerService.getCustomerById(customerId);
 
         assertNotNull(actualResponse);
-        assertEquals(expectedResponse.name(), actualResponse.name());
-        assertEquals(expectedResponse.lastName(), actualResponse.lastName());
-        assertEquals(expectedResponse.email(), actualResponse.email());
+        assertEquals(expectedCustomer.getName(), actualResponse.name());
+        assertEquals(expectedCustomer.getLastName(), actualResponse.lastName());
+        assertEquals(expectedCustomer.getEmail(), actualResponse.email());
 
-        verify(customerRepository).findById(customerId);
-        verify(customerMapper).toCustomerResponse(expectedCustomer);
+        verify(customerDirectory).getCustomer(customerId);
+        verifyNoInteractions(customerRepository);
     }
 
     @Test
     void getCustomerById_ShouldThrowAnException_WhenCustomerNotExist() {
         Long nonExistingCustomerId = 1L;
 
-        when(customerRepository.findById(nonExistingCustomerId)).thenReturn(Optional.empty());
+        when(customerDirectory.getCustomer(nonExistingCustomerId))
+                .thenThrow(new CustomerNotFoundException("Customer with id " + nonExistingCustomerId + " not found"));
 
         assertThrows(CustomerNotFoundException.class, () -> {
             customerService.getCustomerById(nonExistingCustomerId);
         });
 
-        verify(customerRepository, times(1)).findById(nonExistingCustomerId);
+        verify(customerDirectory, times(1)).getCustomer(nonExistingCustomerId);
     }
 
     @Test
@@ -150,10 +155,9 @@ public class CustomerServiceTest {
 
     @Test
     void createCustomer_ShouldThrowAnException_WhenCustomerExist() {
-        Customer existingCustomer = new Customer("John", "Doe", "john.doe@gmail.com");
         CustomerRequestDTO customerRequestDTO = new CustomerRequestDTO("John", "Doe", "john.doe@gmail.com");
 
-        when(customerRepository.getCustomerByEmail(customerRequestDTO.email())).thenReturn(Optional.of(existingCustomer));
+        when(customerDirectory.findIdByEmail(customerRequestDTO.email())).thenReturn(Optional.of(1L));
 
         assertThrows(CustomerAlreadyExistsException.class,
                 () -> customerService.createCustomer(customerRequestDTO));
@@ -161,6 +165,17 @@ public class CustomerServiceTest {
         verify(customerRepository, never()).save(any(Customer.class));
     }
 
+    @Test
+    void createCustomer_ShouldThrowAnException_WhenAConcurrentCreateWonTheEmail() {
+        CustomerRequestDTO customerRequestDTO = new CustomerRequestDTO("John", "Doe", "john.doe@gmail.com");
+
+        when(customerDirectory.findIdByEmail(customerRequestDTO.email())).thenReturn(Optional.empty());
+        when(customerRepository.save(any(Customer.class))).thenThrow(new DataIntegrityViolationException("uk_customers_email"));
+
+        assertThrows(CustomerAlreadyExistsException.class,
+                () -> customerService.createCustomer(customerRequestDTO));
+    }
+
     @Test
     void updateCustomer_ShouldSuccess_WhenCustomerExists() {
         Customer existingCustomer = new Customer(
@@ -183,7 +198,41 @@ public class CustomerServiceTest {
         );
 
         when(customerRepository.findById(anyLong())).thenReturn(Optional.of(existingCustomer));
-        when(customerRepository.save(existingCustomer)).thenReturn(existingCustomer);
+        when(customerRepository.saveAndFlush(existingCustomer)).thenReturn(existingCustomer);
+        when(customerMapper.toCustomerResponse(existingCustomer)).thenReturn(expectedResponse);
+
+        CustomerResponseDTO actualResponse = customerService.updateCustomer(1L, customerRequestDTO);
+
+        assertEquals(expectedResponse.name(), actualResponse.name());
+        assertEquals(expectedResponse.lastName(), actualResponse.lastName());
+        assertEquals(expectedResponse.email(), actualResponse.email());
+
+        verify(customerDirectory).evictAfterCommit(1L, Set.of("john.doe@gmail.com"));
+    }
+
+    @Test
+    void updateCustomer_ShouldEvictBothEmails_WhenTheEmailChanges() {
+        Customer existingCustomer = new Customer(
+                "John",
+                "Doe",
+                "john.doe@gmail.com"
+        );
+
+        CustomerRequestDTO customerRequestDTO = new CustomerRequestDTO(
+            "John",
+            "Doe",
+            "j.doe@gmail.com"
+        );
+
+        CustomerResponseDTO expectedResponse = new CustomerResponseDTO(
+                1L,
+                "John",
+                "Doe",
+                "j.doe@gmail.com"
+        );
+
+        when(customerRepository.findById(anyLong())).thenReturn(Optional.of(existingCustomer));
+        when(customerRepository.saveAndFlush(existingCustomer)).thenReturn(existingCustomer);
         when(customerMapper.toCustomerResponse(existingCustomer)).thenReturn(expectedResponse);
 
         CustomerResponseDTO actualResponse = customerService.updateCustomer(1L, customerRequestDTO);
@@ -191,6 +240,8 @@ public class CustomerServiceTest {
         assertEquals(expectedResponse.name(), actualResponse.name());
         assertEquals(expectedResponse.lastName(), actualResponse.lastName());
         assertEquals(expectedResponse.email(), actualResponse.email());
+
+        verify(customerDirectory).evictAfterCommit(1L, Set.of("john.doe@gmail.com", "j.doe@gmail.com"));
     }
 
     @Test
@@ -216,6 +267,7 @@ public class CustomerServiceTest {
         customerService.deleteCustomer(existingCustomerId);
 
         verify(customerRepository, times(1)).delete(existingCustomer);
+        verify(customerDirectory).evictAfterCommit(existingCustomerId, Set.of("john.doe@gmail.com"));
     }
 
 
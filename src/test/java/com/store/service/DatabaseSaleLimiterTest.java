@@ -0,0 +1,132 @@
+package com.store.service;
+
+import com.store.dto.sale.SaleBatchResponseDTO;
+import com.store.dto.sale.SaleRequestDTO;
+import com.store.dto.sale.SaleResponseDTO;
+import com.store.dto.saleDetail.SaleDetailRequestDTO;
+import com.store.entity.Customer;
+import com.store.entity.Product;
+import com.store.enums.SaleBatchItemStatus;
+import com.store.exception.sale.SaleLimitExceededException;
+import com.store.repository.CustomerRepository;
+import com.store.repository.ProductRepository;
+import com.store.repository.SaleLimitCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "store.sales.limit.backend=DATABASE")
+public class DatabaseSaleLimiterTest {
+
+    static final int THREADS = 16;
+    static final int ATTEMPTS = 40;
+    static final int DAILY_LIMIT = 3;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleBatchService saleBatchService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SaleLimitCounterRepository saleLimitCounterRepository;
+
+    private SaleRequestDTO saleRequest(Customer customer, Product product) {
+        return new SaleRequestDTO(customer.getId(), List.of(new SaleDetailRequestDTO(product.getId(), 1, BigDecimal.valueOf(10))));
+    }
+
+    @Test
+    void createNewSale_ShouldNeverExceedTheDailyLimit_WhenOneCustomerCheckoutsConcurrently() throws Exception {
+        Customer customer = customerRepository.save(new Customer("John", "Doe", "limit.concurrent@gmail.com"));
+        Product product = productRepository.save(new Product("Limit Concurrent Product", "Brand", 10, 1000));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Throwable>> futures = new ArrayList<>();
+
+        for(int i = 0; i < ATTEMPTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    saleService.createNewSale(saleRequest(customer, product));
+                    return null;
+                } catch(RuntimeException e) {
+                    return e;
+                }
+            }));
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        int successes = 0;
+        int limited = 0;
+        for(Future<Throwable> future : futures) {
+            Throwable failure = future.get();
+            if(failure == null) {
+                successes++;
+            } else if(failure instanceof SaleLimitExceededException) {
+                limited++;
+            }
+        }
+
+        assertEquals(DAILY_LIMIT, successes);
+        assertEquals(ATTEMPTS - DAILY_LIMIT, limited);
+        assertEquals(1000 - DAILY_LIMIT, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void cancelSale_ShouldReleaseTheSlot_WhenTheCustomerIsAtTheLimit() {
+        Customer customer = customerRepository.save(new Customer("John", "Doe", "limit.cancel@gmail.com"));
+        Product product = productRepository.save(new Product("Limit Cancel Product", "Brand", 10, 1000));
+
+        List<SaleResponseDTO> sales = new ArrayList<>();
+        for(int i = 0; i < DAILY_LIMIT; i++) {
+            sales.add(saleService.createNewSale(saleRequest(customer, product)));
+        }
+        assertThrows(SaleLimitExceededException.class, () -> saleService.createNewSale(saleRequest(customer, product)));
+
+        saleService.cancelSale(sales.get(0).id());
+
+        saleService.createNewSale(saleRequest(customer, product));
+        assertTrue(saleLimitCounterRepository.count() > 0);
+    }
+
+    @Test
+    void createSales_ShouldCommitTheAcceptedSales_WhenALaterSaleHitsTheLimit() {
+        Customer customer = customerRepository.save(new Customer("John", "Doe", "limit.batch@gmail.com"));
+        Product product = productRepository.save(new Product("Limit Batch Product", "Brand", 10, 1000));
+
+        List<SaleRequestDTO> saleRequests = new ArrayList<>();
+        for(int i = 0; i <= DAILY_LIMIT; i++) {
+            saleRequests.add(saleRequest(customer, product));
+        }
+
+        SaleBatchResponseDTO response = saleBatchService.createSales(saleRequests);
+
+        assertEquals(DAILY_LIMIT, response.created());
+        assertEquals(SaleBatchItemStatus.FAILED, response.items().get(DAILY_LIMIT).status());
+        assertEquals("MAX_SALES_EXCEEDED", response.items().get(DAILY_LIMIT).errorCode());
+        assertEquals(1000 - DAILY_LIMIT, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+}
@@ -0,0 +1,121 @@
+package com.store.service;
+
+import com.store.dto.sale.SaleRequestDTO;
+import com.store.dto.sale.SaleResponseDTO;
+import com.store.dto.saleDetail.SaleDetailRequestDTO;
+import com.store.entity.Customer;
+import com.store.entity.Product;
+import com.store.exception.sale.IdempotencyKeyReusedException;
+import com.store.exception.sale.InvalidIdempotencyKeyException;
+import com.store.repository.CustomerRepository;
+import com.store.repository.IdempotencyRecordRepository;
+import com.store.repository.ProductRepository;
+import com.store.repository.SaleRepository;
+import com.store.service.idempotency.IdempotentSaleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class IdempotentSaleServiceTest {
+
+    static final int THREADS = 8;
+
+    @Autowired
+    private IdempotentSaleService idempotentSaleService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private SaleRequestDTO saleRequest(Customer customer, Product product, int quantity) {
+        return new SaleRequestDTO(customer.getId(), List.of(new SaleDetailRequestDTO(product.getId(), quantity, BigDecimal.valueOf(10))));
+    }
+
+    @Test
+    void createNewSale_ShouldReturnTheStoredSale_WhenTheKeyIsReplayed() {
+        Customer customer = customerRepository.save(new Customer("John", "Doe", "idempotency.replay@gmail.com"));
+        Product product = productRepository.save(new Product("Idempotency Replay Product", "Brand", 10, 100));
+        long salesBefore = saleRepository.count();
+
+        SaleResponseDTO first = idempotentSaleService.createNewSale("replay-key", saleRequest(customer, product, 2));
+        SaleResponseDTO second = idempotentSaleService.createNewSale("replay-key", saleRequest(customer, product, 2));
+
+        assertEquals(first, second);
+        assertEquals(salesBefore + 1, saleRepository.count());
+        assertEquals(98, productRepository.findById(product.getId()).orElseThrow().getStock());
+        assertTrue(idempotencyRecordRepository.findById("replay-key").orElseThrow().getResponse().contains("Idempotency Replay Product"));
+    }
+
+    @Test
+    void createNewSale_ShouldThrowAnException_WhenTheKeyIsReusedForAnotherSale() {
+        Customer customer = customerRepository.save(new Customer("John", "Doe", "idempotency.reuse@gmail.com"));
+        Product product = productRepository.save(new Product("Idempotency Reuse Product", "Brand", 10, 100));
+
+        idempotentSaleService.createNewSale("reused-key", saleRequest(customer, product, 1));
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotentSaleService.createNewSale("reused-key", saleRequest(customer, product, 5)));
+        assertEquals(99, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void createNewSale_ShouldThrowAnException_WhenTheKeyIsBlank() {
+        assertThrows(InvalidIdempotencyKeyException.class,
+                () -> idempotentSaleService.createNewSale(" ", new SaleRequestDTO(1L, List.of())));
+    }
+
+    @Test
+    void createNewSale_ShouldPlaceOneSale_WhenTheSameKeyArrivesConcurrently() throws Exception {
+        Customer customer = customerRepository.save(new Customer("John", "Doe", "idempotency.concurrent@gmail.com"));
+        Product product = productRepository.save(new Product("Idempotency Concurrent Product", "Brand", 10, 100));
+        long salesBefore = saleRepository.count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<SaleResponseDTO>> futures = new ArrayList<>();
+
+        for(int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return idempotentSaleService.createNewSale("concurrent-key", saleRequest(customer, product, 1));
+            }));
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        Set<Long> saleIds = new HashSet<>();
+        for(Future<SaleResponseDTO> future : futures) {
+            saleIds.add(future.get().id());
+        }
+
+        assertEquals(1, saleIds.size());
+        assertEquals(salesBefore + 1, saleRepository.count());
+        assertEquals(99, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+}
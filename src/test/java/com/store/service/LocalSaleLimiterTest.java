@@ -0,0 +1,109 @@
+package com.store.service;
+
+import com.store.enums.SaleLimitScope;
+import com.store.exception.sale.SaleLimitExceededException;
+import com.store.service.limit.LocalSaleLimiter;
+import com.store.service.limit.SaleLimitSeeder;
+import com.store.service.limit.SalePermit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LocalSaleLimiterTest {
+
+    @Mock
+    private SaleLimitSeeder saleLimitSeeder;
+
+    @InjectMocks
+    private LocalSaleLimiter localSaleLimiter;
+
+    private SalePermit permit(SaleLimitScope scope, Long productId, int limit) {
+        LocalDateTime windowStart = LocalDate.now().atStartOfDay();
+        return new SalePermit("policy-" + scope, scope, 1L, productId, windowStart, windowStart.plusDays(1), limit);
+    }
+
+    @Test
+    void reserve_ShouldThrowAnException_WhenTheSeededCountReachesTheLimit() {
+        SalePermit customerPermit = permit(SaleLimitScope.CUSTOMER, null, 3);
+        when(saleLimitSeeder.seed(customerPermit)).thenReturn(2);
+
+        localSaleLimiter.reserve(List.of(customerPermit));
+
+        assertThrows(SaleLimitExceededException.class, () -> localSaleLimiter.reserve(List.of(customerPermit)));
+        verify(saleLimitSeeder, times(1)).seed(customerPermit);
+    }
+
+    @Test
+    void reserve_ShouldTakeNoSlot_WhenAnyPermitIsFull() {
+        SalePermit customerPermit = permit(SaleLimitScope.CUSTOMER, null, 2);
+        SalePermit productPermit = permit(SaleLimitScope.PRODUCT, 5L, 1);
+        when(saleLimitSeeder.seed(any(SalePermit.class))).thenReturn(0);
+
+        localSaleLimiter.reserve(List.of(productPermit));
+        assertThrows(SaleLimitExceededException.class,
+                () -> localSaleLimiter.reserve(List.of(customerPermit, productPermit)));
+
+        localSaleLimiter.reserve(List.of(customerPermit));
+        localSaleLimiter.reserve(List.of(customerPermit));
+        assertThrows(SaleLimitExceededException.class, () -> localSaleLimiter.reserve(List.of(customerPermit)));
+    }
+
+    @Test
+    void reserve_ShouldGiveTheSlotBack_WhenTheTransactionRollsBack() {
+        SalePermit customerPermit = permit(SaleLimitScope.CUSTOMER, null, 1);
+        when(saleLimitSeeder.seed(customerPermit)).thenReturn(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            localSaleLimiter.reserve(List.of(customerPermit));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        localSaleLimiter.reserve(List.of(customerPermit));
+    }
+
+    @Test
+    void release_ShouldFreeASlot_WhenASaleIsCanceled() {
+        SalePermit customerPermit = permit(SaleLimitScope.CUSTOMER, null, 1);
+        when(saleLimitSeeder.seed(customerPermit)).thenReturn(1);
+
+        assertThrows(SaleLimitExceededException.class, () -> localSaleLimiter.reserve(List.of(customerPermit)));
+        localSaleLimiter.release(List.of(customerPermit));
+
+        localSaleLimiter.reserve(List.of(customerPermit));
+    }
+
+    @Test
+    void release_ShouldKeepTheSlot_WhenTheCancelRollsBack() {
+        SalePermit customerPermit = permit(SaleLimitScope.CUSTOMER, null, 1);
+        when(saleLimitSeeder.seed(customerPermit)).thenReturn(0);
+        localSaleLimiter.reserve(List.of(customerPermit));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            localSaleLimiter.release(List.of(customerPermit));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThrows(SaleLimitExceededException.class, () -> localSaleLimiter.reserve(List.of(customerPermit)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.store.service;
+
+import com.store.dto.product.StockLevelDTO;
+import com.store.repository.ProductRepository;
+import com.store.service.stock.LowStockIndex;
+import com.store.service.stock.LowStockListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LowStockIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final List<String> events = new ArrayList<>();
+
+    private LowStockIndex lowStockIndex;
+
+    @BeforeEach
+    void setUp() {
+        LowStockListener listener = new LowStockListener() {
+            @Override
+            public void onLowStock(StockLevelDTO level) {
+                events.add("low " + level.productId() + " at " + level.stock());
+            }
+
+            @Override
+            public void onRestocked(StockLevelDTO level) {
+                events.add("restocked " + level.productId() + " at " + level.stock());
+            }
+        };
+        LowStockListener failing = level -> {
+            throw new IllegalStateException("Listener down");
+        };
+
+        lowStockIndex = new LowStockIndex(productRepository, List.of(failing, listener));
+        when(productRepository.findMonitoredStockLevels()).thenReturn(List.of(
+                new StockLevelDTO(1L, 20, 5),
+                new StockLevelDTO(2L, 3, 5),
+                new StockLevelDTO(3L, 8, 10)
+        ));
+        lowStockIndex.resync();
+        events.clear();
+    }
+
+    @Test
+    void lowStock_ShouldListOnlyProductsAtOrBelowTheirThreshold_LowestStockFirst() {
+        assertEquals(List.of(new StockLevelDTO(2L, 3, 5), new StockLevelDTO(3L, 8, 10)), lowStockIndex.lowStock(10));
+        assertEquals(List.of(new StockLevelDTO(2L, 3, 5)), lowStockIndex.lowStock(1));
+    }
+
+    @Test
+    void decrementAfterCommit_ShouldNotifyOnce_WhenStockCrossesTheThreshold() {
+        lowStockIndex.decrementAfterCommit(Map.of(1L, 10));
+        lowStockIndex.decrementAfterCommit(Map.of(1L, 6));
+        lowStockIndex.decrementAfterCommit(Map.of(1L, 2));
+
+        assertEquals(List.of("low 1 at 4"), events);
+        assertEquals(List.of(new StockLevelDTO(1L, 2, 5), new StockLevelDTO(2L, 3, 5), new StockLevelDTO(3L, 8, 10)),
+                lowStockIndex.lowStock(10));
+    }
+
+    @Test
+    void putAfterCommit_ShouldNotifyAndUnlist_WhenStockGoesBackAboveTheThreshold() {
+        lowStockIndex.putAfterCommit(List.of(new StockLevelDTO(2L, 30, 5)));
+
+        assertEquals(List.of("restocked 2 at 30"), events);
+        assertEquals(List.of(new StockLevelDTO(3L, 8, 10)), lowStockIndex.lowStock(10));
+    }
+
+    @Test
+    void resync_ShouldDropProducts_WhenTheirThresholdWasRemovedElsewhere() {
+        when(productRepository.findMonitoredStockLevels()).thenReturn(List.of(new StockLevelDTO(2L, 3, 5)));
+
+        lowStockIndex.resync();
+        lowStockIndex.decrementAfterCommit(Map.of(3L, 8));
+
+        assertEquals(List.of(new StockLevelDTO(2L, 3, 5)), lowStockIndex.lowStock(10));
+        assertEquals(List.of(), events);
+    }
+
+    @Test
+    void resync_ShouldLeaveTheProductAlone_WhenItsDeltaIsStillInFlight() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            lowStockIndex.decrementAfterCommit(Map.of(1L, 10));
+
+            // The checkout committed before the snapshot was read, but its callback has not run yet
+            when(productRepository.findMonitoredStockLevels()).thenReturn(List.of(
+                    new StockLevelDTO(1L, 10, 5),
+                    new StockLevelDTO(2L, 3, 5),
+                    new StockLevelDTO(3L, 8, 10)
+            ));
+            lowStockIndex.resync();
+
+            for(TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCommit();
+                sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        lowStockIndex.decrementAfterCommit(Map.of(1L, 6));
+
+        assertEquals(List.of("low 1 at 4"), events);
+    }
+}
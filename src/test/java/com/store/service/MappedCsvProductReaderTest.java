@@ -0,0 +1,135 @@
+package com.store.service;
+
+import com.store.dto.csv.CsvImportJobResponseDTO;
+import com.store.entity.Product;
+import com.store.enums.CsvImportMode;
+import com.store.service.csv.CsvImportJob;
+import com.store.service.csv.MappedCsvProductReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MappedCsvProductReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<Product> read(String content, boolean hasHeader, long windowSize, CsvImportJob job) throws Exception {
+        Path csvFile = tempDir.resolve("products.csv");
+        Files.write(csvFile, content.getBytes(StandardCharsets.UTF_8));
+
+        List<Product> products = new ArrayList<>();
+        new MappedCsvProductReader(3, windowSize).read(csvFile, hasHeader, job, products::addAll);
+
+        return products;
+    }
+
+    @Test
+    void read_ShouldParseProducts_IfCsvIsValid() throws Exception {
+        CsvImportJob job = new CsvImportJob("job", CsvImportMode.INSERT, 10);
+
+        List<Product> products = read("name,brand,price,stock\nLaptop,HP,1200.50,10\nMouse,Logitech,25.99,50",
+                true, MappedCsvProductReader.DEFAULT_WINDOW_SIZE, job);
+
+        assertEquals(2, products.size());
+        assertEquals("Laptop", products.get(0).getName());
+        assertEquals("HP", products.get(0).getBrand());
+        assertEquals(1200.50, products.get(0).getPrice());
+        assertEquals(10, products.get(0).getStock());
+        assertEquals(25.99, products.get(1).getPrice());
+        assertEquals(50, products.get(1).getStock());
+    }
+
+    @Test
+    void read_ShouldHandleQuotesCrLfAndByteOrderMark_IfCsvUsesThem() throws Exception {
+        CsvImportJob job = new CsvImportJob("job", CsvImportMode.INSERT, 10);
+
+        List<Product> products = read("\uFEFF\"Monitor, 27\"\"\",\"Dell\",\"199.90\",7\r\nCafé,Nespresso,-0.5,+3\r\n",
+                false, MappedCsvProductReader.DEFAULT_WINDOW_SIZE, job);
+
+        assertEquals(2, products.size());
+        assertEquals("Monitor, 27\"", products.get(0).getName());
+        assertEquals("Dell", products.get(0).getBrand());
+        assertEquals(199.90, products.get(0).getPrice());
+        assertEquals("Café", products.get(1).getName());
+        assertEquals(-0.5, products.get(1).getPrice());
+        assertEquals(3, products.get(1).getStock());
+    }
+
+    @Test
+    void read_ShouldRejectMalformedRows_WithTheirLineNumber() throws Exception {
+        CsvImportJob job = new CsvImportJob("job", CsvImportMode.INSERT, 10);
+
+        List<Product> products = read("Laptop,HP,1200.50,10\nBroken,Row\nMouse,Logitech,not-a-price,50\nKeyboard,Logitech,45,99999999999\n",
+                false, MappedCsvProductReader.DEFAULT_WINDOW_SIZE, job);
+
+        CsvImportJobResponseDTO report = job.toResponse();
+
+        assertEquals(1, products.size());
+        assertEquals(3, report.rowsRejected());
+        assertEquals(2, report.rejectedRows().get(0).line());
+        assertEquals(3, report.rejectedRows().get(1).line());
+        assertEquals(4, report.rejectedRows().get(2).line());
+    }
+
+    @Test
+    void read_ShouldMatchJdkNumberParsing_ForAnyDecimal() throws Exception {
+        Random random = new Random(42);
+        StringBuilder content = new StringBuilder();
+        List<String> prices = new ArrayList<>();
+        List<String> stocks = new ArrayList<>();
+
+        for(int i = 0; i < 2000; i++) {
+            String price = switch(i % 4) {
+                case 0 -> Double.toString(random.nextDouble() * 10000);
+                case 1 -> random.nextInt(100000) + "." + random.nextInt(100);
+                case 2 -> "1e" + random.nextInt(10);
+                default -> "12345678901234567890." + random.nextInt(10);
+            };
+            String stock = Integer.toString(random.nextInt());
+            prices.add(price);
+            stocks.add(stock);
+            content.append("Product").append(i).append(",Brand,").append(price).append(',').append(stock).append('\n');
+        }
+
+        List<Product> products = read(content.toString(), false, MappedCsvProductReader.DEFAULT_WINDOW_SIZE,
+                new CsvImportJob("job", CsvImportMode.INSERT, 10));
+
+        assertEquals(prices.size(), products.size());
+        for(int i = 0; i < products.size(); i++) {
+            assertEquals(Double.parseDouble(prices.get(i)), products.get(i).getPrice(), "price " + prices.get(i));
+            assertEquals(Integer.parseInt(stocks.get(i)), products.get(i).getStock(), "stock " + stocks.get(i));
+        }
+    }
+
+    @Test
+    void read_ShouldGiveTheSameResult_WhenRowsStraddleMappingWindows() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for(int i = 0; i < 50; i++) {
+            content.append("Product").append(i).append(",\"Brand, Inc\",").append(i).append(".25,").append(i);
+            content.append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+        content.append("Last,Brand,1.5,1");
+
+        List<Product> expected = read(content.toString(), false, MappedCsvProductReader.DEFAULT_WINDOW_SIZE,
+                new CsvImportJob("job", CsvImportMode.INSERT, 10));
+        List<Product> actual = read(content.toString(), false, 64, new CsvImportJob("job", CsvImportMode.INSERT, 10));
+
+        assertEquals(51, expected.size());
+        assertEquals(expected.size(), actual.size());
+        for(int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            assertEquals(expected.get(i).getBrand(), actual.get(i).getBrand());
+            assertEquals(expected.get(i).getPrice(), actual.get(i).getPrice());
+            assertEquals(expected.get(i).getStock(), actual.get(i).getStock());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.store.service;
+
+import com.store.entity.Product;
+import com.store.repository.ProductRepository;
+import com.store.service.csv.ProductBatchWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class ProductBatchWriterTest {
+
+    @Autowired
+    private ProductBatchWriter productBatchWriter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void upsertBatch_ShouldUpdateExistingProductsAndInsertNewOnes() {
+        Product existing = productRepository.save(new Product("Upsert Laptop", "HP", 1200.0, 10));
+
+        productBatchWriter.upsertBatch(List.of(
+                new Product("Upsert Laptop", "HP", 1100.0, 25),
+                new Product("Upsert Laptop", "Dell", 900.0, 5),
+                new Product("Upsert Mouse", "Logitech", 20.0, 40),
+                new Product("Upsert Mouse", "Logitech", 19.5, 45)
+        ));
+
+        Product updated = productRepository.findById(existing.getId()).orElseThrow();
+        assertEquals(1100.0, updated.getPrice());
+        assertEquals(25, updated.getStock());
+
+        assertTrue(productRepository.findByNameAndBrand("Upsert Laptop", "Dell").isPresent());
+
+        Product mouse = productRepository.findByNameAndBrand("Upsert Mouse", "Logitech").orElseThrow();
+        assertEquals(19.5, mouse.getPrice());
+        assertEquals(45, mouse.getStock());
+    }
+
+    @Test
+    void writeBatch_ShouldThrowAnException_WhenProductAlreadyExists() {
+        productRepository.save(new Product("Insert Keyboard", "Logitech", 45.0, 30));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> productBatchWriter.writeBatch(List.of(new Product("Insert Keyboard", "Logitech", 40.0, 10))));
+    }
+}
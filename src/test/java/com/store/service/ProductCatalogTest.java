@@ -0,0 +1,110 @@
+package com.store.service;
+
+import com.store.dto.product.ProductResponseDTO;
+import com.store.entity.Product;
+import com.store.exception.product.ProductNotFoundException;
+import com.store.mapper.ProductMapper;
+import com.store.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductCatalogTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    private ProductCatalog productCatalog;
+
+    private final Product cheese = Product.builder().id(1L).name("Blue Cheese").brand("La Serenisima").price(6000).stock(15).build();
+    private final Product milk = Product.builder().id(2L).name("Milk").brand("La Serenisima").price(1500).stock(10).build();
+    private final ProductResponseDTO cheeseResponse = new ProductResponseDTO(1L, "Blue Cheese", "La Serenisima", 6000, 15);
+    private final ProductResponseDTO milkResponse = new ProductResponseDTO(2L, "Milk", "La Serenisima", 1500, 10);
+
+    @BeforeEach
+    void setUp() {
+        productCatalog = new ProductCatalog(productRepository, productMapper, new ConcurrentMapCacheManager(ProductCatalog.CACHE_NAME));
+    }
+
+    @Test
+    void getProduct_ShouldHitTheDatabaseOnce_WhenReadRepeatedly() {
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(cheese));
+        when(productMapper.toProductResponse(cheese)).thenReturn(cheeseResponse);
+
+        assertEquals(cheeseResponse, productCatalog.getProduct(1L));
+        assertEquals(cheeseResponse, productCatalog.getProduct(1L));
+
+        verify(productRepository, times(1)).findAllById(List.of(1L));
+    }
+
+    @Test
+    void getProduct_ShouldThrowAnException_WhenProductNotExist() {
+        when(productRepository.findAllById(List.of(9L))).thenReturn(List.of());
+
+        assertThrows(ProductNotFoundException.class, () -> productCatalog.getProduct(9L));
+    }
+
+    @Test
+    void getProducts_ShouldOnlyLoadMisses_InOneQuery() {
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(cheese));
+        when(productRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(milk));
+        when(productMapper.toProductResponse(cheese)).thenReturn(cheeseResponse);
+        when(productMapper.toProductResponse(milk)).thenReturn(milkResponse);
+
+        productCatalog.getProduct(1L);
+        Map<Long, ProductResponseDTO> products = productCatalog.getProducts(List.of(1L, 2L, 3L));
+
+        assertEquals(Map.of(1L, cheeseResponse, 2L, milkResponse), products);
+    }
+
+    @Test
+    void evictAfterCommit_ShouldKeepTheCachedValue_UntilTheTransactionCommits() {
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(cheese));
+        when(productMapper.toProductResponse(cheese)).thenReturn(cheeseResponse);
+        productCatalog.getProduct(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productCatalog.evictAfterCommit(List.of(1L));
+            productCatalog.getProduct(1L);
+            verify(productRepository, times(1)).findAllById(List.of(1L));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        productCatalog.getProduct(1L);
+        verify(productRepository, times(2)).findAllById(List.of(1L));
+    }
+
+    @Test
+    void getProduct_ShouldNotCacheTheLoadedValue_WhenAnEvictionLandsDuringTheLoad() {
+        when(productRepository.findAllById(List.of(1L))).thenAnswer(invocation -> {
+            productCatalog.evictAfterCommit(List.of(1L));
+            return List.of(cheese);
+        });
+        when(productMapper.toProductResponse(cheese)).thenReturn(cheeseResponse);
+
+        assertEquals(cheeseResponse, productCatalog.getProduct(1L));
+        productCatalog.getProduct(1L);
+
+        verify(productRepository, times(2)).findAllById(List.of(1L));
+    }
+}
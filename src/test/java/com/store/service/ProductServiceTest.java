@@ -1,22 +1,30 @@
 package com.store.service;
 
+import com.store.config.LowStockProperties;
+import com.store.dto.product.LowStockProductResponseDTO;
 import com.store.dto.product.ProductRequestDTO;
 import com.store.dto.product.ProductResponseDTO;
+import com.store.dto.product.ReorderThresholdRequestDTO;
+import com.store.dto.product.StockLevelDTO;
 import com.store.entity.Product;
+import com.store.exception.product.InvalidReorderThresholdException;
 import com.store.exception.product.ProductAlreadyExistsException;
 import com.store.exception.product.ProductNotFoundException;
 import com.store.mapper.ProductMapper;
 import com.store.repository.ProductRepository;
+import com.store.service.stock.LowStockIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static java.util.Optional.empty;
@@ -33,6 +41,15 @@ public class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ProductCatalog productCatalog;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Spy
+    private LowStockProperties lowStockProperties = new LowStockProperties(2, 5);
+
     @InjectMocks
     private ProductService productService;
 
@@ -61,29 +78,29 @@ public class ProductServiceTest {
                 20
         );
 
-        when(productRepository.findById(existingProductId)).thenReturn(Optional.of(existingProduct));
-        when(productMapper.toProductResponse(existingProduct)).thenReturn(expectedResponse);
+        when(productCatalog.getProduct(existingProductId)).thenReturn(expectedResponse);
 
         ProductResponseDTO actualResponse = productService.getProductById(existingProductId);
 
         assertEquals(expectedResponse.id(), actualResponse.id());
         assertEquals(expectedResponse.name(), actualResponse.name());
-        assertEquals(expectedResponse.brand(), actualResponse.brand());
+        assertEquals(existingProduct.getBrand(), actualResponse.brand());
 
-        verify(productMapper).toProductResponse(existingProduct);
+        verifyNoInteractions(productRepository);
     }
 
     @Test
     void getProductById_ShouldThrowAnException_WhenProductNotExist() {
         Long nonExistingProductId = 1L;
 
-        when(productRepository.findById(nonExistingProductId)).thenReturn(empty());
+        when(productCatalog.getProduct(nonExistingProductId))
+                .thenThrow(new ProductNotFoundException("Product with id " + nonExistingProductId + " not found"));
 
         assertThrows(ProductNotFoundException.class, () -> {
             productService.getProductById(nonExistingProductId);
         });
 
-        verify(productRepository, times(1)).findById(nonExistingProductId);
+        verify(productCatalog, times(1)).getProduct(nonExistingProductId);
     }
 
     @Test
@@ -209,7 +226,6 @@ public class ProductServiceTest {
         );
 
         when(productRepository.findById(anyLong())).thenReturn(Optional.of(existingProduct));
-        when(productMapper.toProduct(productRequestDTO)).thenReturn(existingProduct);
         when(productRepository.save(existingProduct)).thenReturn(existingProduct);
         when(productMapper.toProductResponse(existingProduct)).thenReturn(expectedResponse);
 
@@ -220,6 +236,10 @@ public class ProductServiceTest {
         assertEquals(expectedResponse.brand(), actualResponse.brand());
         assertEquals(expectedResponse.price(), actualResponse.price());
         assertEquals(expectedResponse.stock(), actualResponse.stock());
+
+        verify(productMapper).updateProductFromDTO(productRequestDTO, existingProduct);
+        verify(productCatalog).evictAfterCommit(List.of(1L));
+        verify(lowStockIndex).putAfterCommit(List.of(new StockLevelDTO(1L, 20, 0)));
     }
 
     @Test
@@ -256,6 +276,8 @@ public class ProductServiceTest {
         productService.deleteProduct(existingProductId);
 
         verify(productRepository, times(1)).delete(existingProduct);
+        verify(productCatalog).evictAfterCommit(List.of(existingProductId));
+        verify(lowStockIndex).removeAfterCommit(existingProductId);
     }
 
     @Test
@@ -269,4 +291,48 @@ public class ProductServiceTest {
 
         verify(productRepository, times(1)).findById(nonExistingProductId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateReorderThreshold_ShouldIndexTheNewLevel_WhenProductExists() {
+        StockLevelDTO level = new StockLevelDTO(1L, 4, 5);
+
+        when(productRepository.updateReorderThreshold(1L, 5)).thenReturn(1);
+        when(productRepository.findStockLevelById(1L)).thenReturn(Optional.of(level));
+
+        assertEquals(level, productService.updateReorderThreshold(1L, new ReorderThresholdRequestDTO(5)));
+
+        verify(lowStockIndex).putAfterCommit(List.of(level));
+    }
+
+    @Test
+    void updateReorderThreshold_ShouldThrowAnException_WhenThresholdIsNegative() {
+        assertThrows(InvalidReorderThresholdException.class,
+                () -> productService.updateReorderThreshold(1L, new ReorderThresholdRequestDTO(-1)));
+
+        verifyNoInteractions(productRepository, lowStockIndex);
+    }
+
+    @Test
+    void updateReorderThreshold_ShouldThrowAnException_WhenProductNotExists() {
+        when(productRepository.updateReorderThreshold(9L, 5)).thenReturn(0);
+
+        assertThrows(ProductNotFoundException.class,
+                () -> productService.updateReorderThreshold(9L, new ReorderThresholdRequestDTO(5)));
+
+        verifyNoInteractions(lowStockIndex);
+    }
+
+    @Test
+    void getLowStockProducts_ShouldReadOnlyTheIndexAndTheCache_WhenCalled() {
+        StockLevelDTO level = new StockLevelDTO(1L, 2, 5);
+        ProductResponseDTO product = new ProductResponseDTO(1L, "T-Shirt", "Levis", 50.0, 2);
+
+        when(lowStockIndex.lowStock(2)).thenReturn(List.of(level));
+        when(productCatalog.getProducts(List.of(1L))).thenReturn(Map.of(1L, product));
+
+        List<LowStockProductResponseDTO> lowStock = productService.getLowStockProducts(null);
+
+        assertEquals(List.of(new LowStockProductResponseDTO(1L, "T-Shirt", "Levis", 2, 5)), lowStock);
+        verifyNoInteractions(productRepository);
+    }
+}
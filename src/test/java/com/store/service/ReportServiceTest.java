@@ -0,0 +1,97 @@
+package com.store.service;
+
+import com.store.dto.report.DailyProductSalesDTO;
+import com.store.dto.sale.SaleRequestDTO;
+import com.store.dto.sale.SaleResponseDTO;
+import com.store.dto.saleDetail.SaleDetailRequestDTO;
+import com.store.entity.Customer;
+import com.store.entity.Product;
+import com.store.exception.report.InvalidReportRangeException;
+import com.store.repository.CustomerRepository;
+import com.store.repository.ProductRepository;
+import com.store.service.report.ReportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class ReportServiceTest {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleBatchService saleBatchService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void getDailyProductSales_ShouldFollowSalesAndCancellations() {
+        LocalDate today = LocalDate.now();
+        Customer customer = customerRepository.save(new Customer("John", "Doe", "report.daily@gmail.com"));
+        Product product = productRepository.save(new Product("Report Product", "Brand", 10, 100));
+
+        saleService.createNewSale(new SaleRequestDTO(customer.getId(), List.of(
+                new SaleDetailRequestDTO(product.getId(), 2, new BigDecimal("10.50")),
+                new SaleDetailRequestDTO(product.getId(), 1, new BigDecimal("10.50"))
+        )));
+        SaleResponseDTO canceled = saleService.createNewSale(new SaleRequestDTO(customer.getId(),
+                List.of(new SaleDetailRequestDTO(product.getId(), 4, new BigDecimal("10.00")))));
+        saleBatchService.createSales(List.of(new SaleRequestDTO(customer.getId(),
+                List.of(new SaleDetailRequestDTO(product.getId(), 1, new BigDecimal("9.00"))))));
+
+        assertEquals(new DailyProductSalesDTO(today, product.getId(), 8, new BigDecimal("80.50"), 3),
+                onlyRow(reportService.getDailyProductSales(today, today, product.getId())));
+
+        saleService.cancelSale(canceled.id());
+
+        assertEquals(new DailyProductSalesDTO(today, product.getId(), 4, new BigDecimal("40.50"), 2),
+                onlyRow(reportService.getDailyProductSales(today, today, product.getId())));
+    }
+
+    @Test
+    void rebuildDailySales_ShouldMatchTheIncrementalAggregates() {
+        LocalDate today = LocalDate.now();
+        Customer customer = customerRepository.save(new Customer("John", "Doe", "report.rebuild@gmail.com"));
+        Product product = productRepository.save(new Product("Report Rebuild Product", "Brand", 10, 100));
+
+        SaleResponseDTO sale = saleService.createNewSale(new SaleRequestDTO(customer.getId(),
+                List.of(new SaleDetailRequestDTO(product.getId(), 3, new BigDecimal("5.00")))));
+        saleService.createNewSale(new SaleRequestDTO(customer.getId(),
+                List.of(new SaleDetailRequestDTO(product.getId(), 2, new BigDecimal("5.00")))));
+        saleBatchService.cancelSales(List.of(sale.id()));
+        DailyProductSalesDTO incremental = onlyRow(reportService.getDailyProductSales(today, today, product.getId()));
+
+        reportService.rebuildDailySales(today, today);
+
+        assertEquals(incremental, onlyRow(reportService.getDailyProductSales(today, today, product.getId())));
+        assertEquals(2, incremental.units());
+    }
+
+    @Test
+    void getDailySales_ShouldThrowAnException_WhenTheRangeIsInverted() {
+        LocalDate today = LocalDate.now();
+
+        assertThrows(InvalidReportRangeException.class, () -> reportService.getDailySales(today, today.minusDays(1)));
+        assertThrows(InvalidReportRangeException.class, () -> reportService.getDailySales(today.minusYears(2), today));
+    }
+
+    private DailyProductSalesDTO onlyRow(List<DailyProductSalesDTO> rows) {
+        assertEquals(1, rows.size());
+        return rows.get(0);
+    }
+}
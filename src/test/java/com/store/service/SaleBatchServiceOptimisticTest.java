@@ -0,0 +1,50 @@
+package com.store.service;
+
+import com.store.dto.sale.SaleBatchResponseDTO;
+import com.store.entity.Customer;
+import com.store.entity.Product;
+import com.store.repository.CustomerRepository;
+import com.store.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static com.store.service.SaleBatchServiceTest.createSalesWhileACheckoutDrains;
+import static com.store.service.SaleBatchServiceTest.saleRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "store.stock.reservation-mode=OPTIMISTIC")
+public class SaleBatchServiceOptimisticTest {
+
+    @Autowired
+    private SaleBatchService saleBatchService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void createSales_ShouldNotRollBackTheBatch_WhenACheckoutCommitsBeforeTheStockIsLocked() throws Exception {
+        Customer john = customerRepository.save(new Customer("John", "Doe", "batch.optimistic.john@gmail.com"));
+        Customer jane = customerRepository.save(new Customer("Jane", "Doe", "batch.optimistic.jane@gmail.com"));
+        Product cheese = productRepository.save(new Product("Batch Optimistic Cheese", "Brand", 10, 10));
+
+        SaleBatchResponseDTO response = createSalesWhileACheckoutDrains(saleBatchService, transactionTemplate,
+                productRepository, cheese.getId(), 4, List.of(
+                        saleRequest(john.getId(), cheese.getId(), 3),
+                        saleRequest(jane.getId(), cheese.getId(), 4)
+                ));
+
+        assertEquals(List.of("CREATED", "INSUFFICIENT_STOCK"),
+                response.items().stream().map(SaleBatchServiceTest::outcome).toList());
+        assertEquals(3, productRepository.findById(cheese.getId()).orElseThrow().getStock());
+    }
+}
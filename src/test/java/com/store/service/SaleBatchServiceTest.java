@@ -0,0 +1,208 @@
+package com.store.service;
+
+import com.store.dto.sale.SaleBatchItemResponseDTO;
+import com.store.dto.sale.SaleBatchResponseDTO;
+import com.store.dto.sale.SaleCancelBatchResponseDTO;
+import com.store.dto.sale.SaleCancelItemResponseDTO;
+import com.store.dto.sale.SaleRequestDTO;
+import com.store.dto.sale.SaleResponseDTO;
+import com.store.dto.saleDetail.SaleDetailRequestDTO;
+import com.store.entity.Customer;
+import com.store.entity.Product;
+import com.store.enums.SaleBatchItemStatus;
+import com.store.enums.SaleCancelItemStatus;
+import com.store.enums.SaleStatus;
+import com.store.exception.sale.SaleBatchTooLargeException;
+import com.store.repository.CustomerRepository;
+import com.store.repository.ProductRepository;
+import com.store.repository.SaleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Lists bind from a single property source, so the daily policy is repeated next to the hourly one
+@SpringBootTest(properties = {
+        "store.sales.batch.max-size=10",
+        "store.sales.limit.policies[0].name=customer-daily",
+        "store.sales.limit.policies[0].scope=CUSTOMER",
+        "store.sales.limit.policies[0].limit=3",
+        "store.sales.limit.policies[0].window=1d",
+        "store.sales.limit.policies[1].name=customer-product-hourly",
+        "store.sales.limit.policies[1].scope=CUSTOMER_PRODUCT",
+        "store.sales.limit.policies[1].limit=3",
+        "store.sales.limit.policies[1].window=1h"
+})
+public class SaleBatchServiceTest {
+
+    @Autowired
+    private SaleBatchService saleBatchService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    static SaleRequestDTO saleRequest(Long customerId, Long productId, int quantity) {
+        return new SaleRequestDTO(customerId, List.of(new SaleDetailRequestDTO(productId, quantity, BigDecimal.valueOf(10))));
+    }
+
+    @Test
+    void createSales_ShouldReportEachSale_WhenSomeCannotBePlaced() {
+        Customer john = customerRepository.save(new Customer("John", "Doe", "batch.john@gmail.com"));
+        Customer jane = customerRepository.save(new Customer("Jane", "Doe", "batch.jane@gmail.com"));
+        Product cheese = productRepository.save(new Product("Batch Cheese", "Brand", 10, 5));
+        Product milk = productRepository.save(new Product("Batch Milk", "Brand", 10, 100));
+        long salesBefore = saleRepository.count();
+
+        SaleBatchResponseDTO response = saleBatchService.createSales(List.of(
+                saleRequest(john.getId(), cheese.getId(), 3),
+                saleRequest(-1L, cheese.getId(), 1),
+                saleRequest(jane.getId(), -1L, 1),
+                saleRequest(jane.getId(), cheese.getId(), 3),
+                new SaleRequestDTO(jane.getId(), List.of(
+                        new SaleDetailRequestDTO(cheese.getId(), 2, BigDecimal.valueOf(10)),
+                        new SaleDetailRequestDTO(milk.getId(), 4, BigDecimal.valueOf(10))
+                ))
+        ));
+
+        assertEquals(2, response.created());
+        assertEquals(3, response.failed());
+        assertEquals(List.of("CREATED", "CUSTOMER_NOT_FOUND", "PRODUCT_NOT_FOUND", "INSUFFICIENT_STOCK", "CREATED"),
+                response.items().stream().map(SaleBatchServiceTest::outcome).toList());
+        assertNotNull(response.items().get(4).sale().id());
+        assertEquals(BigDecimal.valueOf(60), response.items().get(4).sale().totalAmount());
+
+        assertEquals(0, productRepository.findById(cheese.getId()).orElseThrow().getStock());
+        assertEquals(96, productRepository.findById(milk.getId()).orElseThrow().getStock());
+        assertEquals(salesBefore + 2, saleRepository.count());
+        assertEquals(2, saleService.getSaleById(response.items().get(4).sale().id()).saleDetails().size());
+    }
+
+    @Test
+    void createSales_ShouldReportOnlyTheSaleThatNoLongerFits_WhenACheckoutDrainsStockMidBatch() throws Exception {
+        Customer john = customerRepository.save(new Customer("John", "Doe", "batch.drain.john@gmail.com"));
+        Customer jane = customerRepository.save(new Customer("Jane", "Doe", "batch.drain.jane@gmail.com"));
+        Product cheese = productRepository.save(new Product("Batch Drained Cheese", "Brand", 10, 10));
+
+        SaleBatchResponseDTO response = createSalesWhileACheckoutDrains(saleBatchService, transactionTemplate,
+                productRepository, cheese.getId(), 4, List.of(
+                        saleRequest(john.getId(), cheese.getId(), 3),
+                        saleRequest(jane.getId(), cheese.getId(), 4)
+                ));
+
+        assertEquals(List.of("CREATED", "INSUFFICIENT_STOCK"), response.items().stream().map(SaleBatchServiceTest::outcome).toList());
+        assertEquals(3, productRepository.findById(cheese.getId()).orElseThrow().getStock());
+
+        // The dropped sale gave back its hourly slot as well as its daily one
+        SaleBatchResponseDTO retries = saleBatchService.createSales(
+                Collections.nCopies(3, saleRequest(jane.getId(), cheese.getId(), 1)));
+        assertEquals(List.of("CREATED", "CREATED", "CREATED"), retries.items().stream().map(SaleBatchServiceTest::outcome).toList());
+    }
+
+    // Holds the drained units uncommitted while the batch reads the product, then commits once the batch waits on the row
+    static SaleBatchResponseDTO createSalesWhileACheckoutDrains(SaleBatchService saleBatchService,
+                                                               TransactionTemplate transactionTemplate,
+                                                               ProductRepository productRepository, Long productId,
+                                                               int drained, List<SaleRequestDTO> saleRequests) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch decremented = new CountDownLatch(1);
+
+        try {
+            Future<?> checkout = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                productRepository.decrementStock(productId, drained);
+                decremented.countDown();
+                try {
+                    Thread.sleep(500);
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            decremented.await();
+
+            SaleBatchResponseDTO response = saleBatchService.createSales(saleRequests);
+            checkout.get();
+            return response;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void createSales_ShouldApplyTheDailyLimit_InRequestOrderPerCustomer() {
+        Customer customer = customerRepository.save(new Customer("John", "Doe", "batch.limit@gmail.com"));
+        Product product = productRepository.save(new Product("Batch Limited Product", "Brand", 10, 100));
+
+        List<SaleRequestDTO> saleRequests = new ArrayList<>(Collections.nCopies(4, saleRequest(customer.getId(), product.getId(), 1)));
+
+        SaleBatchResponseDTO response = saleBatchService.createSales(saleRequests);
+
+        assertEquals(List.of("CREATED", "CREATED", "CREATED", "MAX_SALES_EXCEEDED"),
+                response.items().stream().map(SaleBatchServiceTest::outcome).toList());
+        assertEquals(97, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void createSales_ShouldThrowAnException_WhenTheBatchIsTooLarge() {
+        List<SaleRequestDTO> saleRequests = Collections.nCopies(11, saleRequest(1L, 1L, 1));
+
+        assertThrows(SaleBatchTooLargeException.class, () -> saleBatchService.createSales(saleRequests));
+    }
+
+    @Test
+    void cancelSales_ShouldRestoreStockPerProduct_AndReportEachSale() {
+        Customer customer = customerRepository.save(new Customer("John", "Doe", "batch.cancel@gmail.com"));
+        Product cheese = productRepository.save(new Product("Batch Cancel Cheese", "Brand", 10, 100));
+        Product milk = productRepository.save(new Product("Batch Cancel Milk", "Brand", 10, 100));
+
+        SaleResponseDTO first = saleService.createNewSale(new SaleRequestDTO(customer.getId(), List.of(
+                new SaleDetailRequestDTO(cheese.getId(), 2, BigDecimal.valueOf(10)),
+                new SaleDetailRequestDTO(milk.getId(), 1, BigDecimal.valueOf(10)),
+                new SaleDetailRequestDTO(cheese.getId(), 3, BigDecimal.valueOf(10))
+        )));
+        SaleResponseDTO second = saleService.createNewSale(saleRequest(customer.getId(), cheese.getId(), 4));
+        SaleResponseDTO alreadyCanceled = saleService.createNewSale(saleRequest(customer.getId(), milk.getId(), 1));
+        saleService.cancelSale(alreadyCanceled.id());
+
+        SaleCancelBatchResponseDTO response = saleBatchService.cancelSales(
+                List.of(first.id(), -1L, second.id(), alreadyCanceled.id(), first.id()));
+
+        assertEquals(2, response.canceled());
+        assertEquals(2, response.failed());
+        assertEquals(List.of(SaleCancelItemStatus.CANCELED, SaleCancelItemStatus.FAILED, SaleCancelItemStatus.CANCELED, SaleCancelItemStatus.FAILED),
+                response.items().stream().map(SaleCancelItemResponseDTO::status).toList());
+        assertEquals("SALE_NOT_FOUND", response.items().get(1).errorCode());
+        assertEquals("INVALID_SALE_STATE", response.items().get(3).errorCode());
+
+        assertEquals(100, productRepository.findById(cheese.getId()).orElseThrow().getStock());
+        assertEquals(100, productRepository.findById(milk.getId()).orElseThrow().getStock());
+        assertEquals(SaleStatus.CANCELED, saleService.getSaleById(second.id()).status());
+    }
+
+    static String outcome(SaleBatchItemResponseDTO item) {
+        return item.status() == SaleBatchItemStatus.CREATED ? "CREATED" : item.errorCode();
+    }
+}
@@ -0,0 +1,94 @@
+package com.store.service;
+
+import com.store.config.SaleLimitProperties;
+import com.store.enums.SaleLimitScope;
+import com.store.enums.SaleLimiterBackend;
+import com.store.service.limit.SaleLimitService;
+import com.store.service.limit.SaleLimiter;
+import com.store.service.limit.SalePermit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SaleLimitServiceTest {
+
+    @Mock
+    private SaleLimiter saleLimiter;
+
+    @Captor
+    private ArgumentCaptor<List<SalePermit>> permitsCaptor;
+
+    private SaleLimitService buildService(SaleLimitProperties.Policy... policies) {
+        return new SaleLimitService(saleLimiter, new SaleLimitProperties(SaleLimiterBackend.LOCAL, List.of(policies)));
+    }
+
+    @Test
+    void reserve_ShouldRequestOnePermitPerPolicyAndProduct_InAStableOrder() {
+        SaleLimitService saleLimitService = buildService(
+                new SaleLimitProperties.Policy("product-hourly", SaleLimitScope.PRODUCT, 100, Duration.ofHours(1)),
+                new SaleLimitProperties.Policy("customer-daily", SaleLimitScope.CUSTOMER, 3, Duration.ofDays(1))
+        );
+
+        saleLimitService.reserve(7L, Set.of(2L, 1L));
+
+        verify(saleLimiter).reserve(permitsCaptor.capture());
+        List<SalePermit> permits = permitsCaptor.getValue();
+
+        assertEquals(List.of("customer:7", "product:1", "product:2"), permits.stream().map(SalePermit::subject).toList());
+        assertEquals(LocalDate.now().atStartOfDay(), permits.get(0).windowStart());
+        assertEquals(Duration.ofHours(1), Duration.between(permits.get(1).windowStart(), permits.get(1).windowEnd()));
+    }
+
+    @Test
+    void reserve_ShouldNotCallTheLimiter_WhenNoPolicyIsConfigured() {
+        buildService().reserve(7L, Set.of(1L));
+
+        verifyNoInteractions(saleLimiter);
+    }
+
+    @Test
+    void release_ShouldOnlyReleaseDayAlignedWindows_OfTheSaleDate() {
+        SaleLimitService saleLimitService = buildService(
+                new SaleLimitProperties.Policy("customer-hourly", SaleLimitScope.CUSTOMER, 1, Duration.ofHours(1)),
+                new SaleLimitProperties.Policy("customer-product-daily", SaleLimitScope.CUSTOMER_PRODUCT, 2, Duration.ofDays(1))
+        );
+        LocalDate saleDate = LocalDate.of(2026, 3, 14);
+
+        saleLimitService.release(7L, Set.of(1L), saleDate);
+
+        verify(saleLimiter).release(permitsCaptor.capture());
+        List<SalePermit> permits = permitsCaptor.getValue();
+
+        assertEquals(1, permits.size());
+        assertEquals("customer:7:product:1", permits.get(0).subject());
+        assertEquals(LocalDateTime.of(2026, 3, 14, 0, 0), permits.get(0).windowStart());
+        assertEquals(LocalDateTime.of(2026, 3, 15, 0, 0), permits.get(0).windowEnd());
+    }
+
+    @Test
+    void release_ShouldGiveBackTheReservedPermits_WhenTheirWindowIsShorterThanADay() {
+        SaleLimitService saleLimitService = buildService(
+                new SaleLimitProperties.Policy("customer-hourly", SaleLimitScope.CUSTOMER, 1, Duration.ofHours(1))
+        );
+
+        List<SalePermit> reserved = saleLimitService.reserve(7L, Set.of(1L));
+        saleLimitService.release(reserved);
+
+        verify(saleLimiter).release(permitsCaptor.capture());
+        assertEquals(reserved, permitsCaptor.getValue());
+        assertEquals(1, reserved.size());
+    }
+}
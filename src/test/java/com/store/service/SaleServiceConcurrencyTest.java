@@ -0,0 +1,109 @@
+package com.store.service;
+
+import com.store.dto.sale.SaleRequestDTO;
+import com.store.dto.saleDetail.SaleDetailRequestDTO;
+import com.store.entity.Customer;
+import com.store.entity.Product;
+import com.store.exception.product.InsufficientStockException;
+import com.store.repository.CustomerRepository;
+import com.store.repository.ProductRepository;
+import com.store.repository.SaleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "store.stock.reservation-mode=ATOMIC")
+public class SaleServiceConcurrencyTest {
+
+    static final int THREADS = 16;
+    static final int BUYERS = 200;
+    static final int INITIAL_STOCK = 50;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Test
+    void createNewSale_ShouldNeverOversell_WhenManyThreadsBuyTheSameProduct() throws Exception {
+        Product product = productRepository.save(new Product("Blue Cheese", "La Serenisima", 6000, INITIAL_STOCK));
+        List<Customer> customers = new ArrayList<>();
+        for(int i = 0; i < BUYERS; i++) {
+            customers.add(new Customer("John", "Doe", "john.doe" + i + "@gmail.com"));
+        }
+        customers = customerRepository.saveAll(customers);
+
+        HammerResult result = hammer(saleService, product.getId(), customers);
+
+        assertEquals(INITIAL_STOCK, result.successes());
+        assertEquals(BUYERS - INITIAL_STOCK, result.insufficientStock());
+        assertEquals(0, result.otherFailures());
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+        assertEquals(INITIAL_STOCK, saleRepository.count());
+    }
+
+    static HammerResult hammer(SaleService saleService, Long productId, List<Customer> customers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Throwable>> futures = new ArrayList<>();
+
+        for(Customer customer : customers) {
+            SaleRequestDTO saleRequest = new SaleRequestDTO(
+                    customer.getId(),
+                    List.of(new SaleDetailRequestDTO(productId, 1, BigDecimal.valueOf(6000)))
+            );
+
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    saleService.createNewSale(saleRequest);
+                    return null;
+                } catch(RuntimeException e) {
+                    return e;
+                }
+            }));
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        int successes = 0;
+        int insufficientStock = 0;
+        int otherFailures = 0;
+        for(Future<Throwable> future : futures) {
+            Throwable failure = future.get();
+            if(failure == null) {
+                successes++;
+            } else if(failure instanceof InsufficientStockException) {
+                insufficientStock++;
+            } else {
+                otherFailures++;
+            }
+        }
+
+        return new HammerResult(successes, insufficientStock, otherFailures);
+    }
+
+    record HammerResult(int successes, int insufficientStock, int otherFailures) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.store.service;
+
+import com.store.entity.Customer;
+import com.store.entity.Product;
+import com.store.repository.CustomerRepository;
+import com.store.repository.ProductRepository;
+import com.store.repository.SaleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.store.service.SaleServiceConcurrencyTest.BUYERS;
+import static com.store.service.SaleServiceConcurrencyTest.INITIAL_STOCK;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "store.stock.reservation-mode=OPTIMISTIC")
+public class SaleServiceOptimisticConcurrencyTest {
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Test
+    void createNewSale_ShouldNotLoseUpdates_WhenManyThreadsBuyTheSameProduct() throws Exception {
+        Product product = productRepository.save(new Product("Blue Cheese", "La Serenisima", 6000, INITIAL_STOCK));
+        List<Customer> customers = new ArrayList<>();
+        for(int i = 0; i < BUYERS; i++) {
+            customers.add(new Customer("John", "Doe", "john.doe" + i + "@gmail.com"));
+        }
+        customers = customerRepository.saveAll(customers);
+
+        SaleServiceConcurrencyTest.HammerResult result =
+                SaleServiceConcurrencyTest.hammer(saleService, product.getId(), customers);
+
+        int remainingStock = productRepository.findById(product.getId()).orElseThrow().getStock();
+
+        assertTrue(result.successes() > 0);
+        assertTrue(remainingStock >= 0);
+        assertEquals(INITIAL_STOCK, remainingStock + result.successes());
+        assertEquals(result.successes(), saleRepository.count());
+    }
+}
@@ -0,0 +1,144 @@
+package com.store.service;
+
+import com.store.dto.sale.SalePageResponseDTO;
+import com.store.dto.sale.SaleResponseDTO;
+import com.store.entity.Customer;
+import com.store.entity.Product;
+import com.store.entity.Sale;
+import com.store.entity.SaleDetail;
+import com.store.enums.SaleStatus;
+import com.store.repository.CustomerRepository;
+import com.store.repository.ProductRepository;
+import com.store.repository.SaleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class SaleServiceQueryCountTest {
+
+    static final int SALES = 40;
+    static final int DETAILS_PER_SALE = 3;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        saleRepository.deleteAll();
+        customerRepository.deleteAll();
+        productRepository.deleteAll();
+
+        List<Product> products = new ArrayList<>();
+        for(int i = 0; i < DETAILS_PER_SALE; i++) {
+            products.add(new Product("Query Count Product " + i, "Brand", 100, 1000));
+        }
+        products = productRepository.saveAll(products);
+
+        List<Sale> sales = new ArrayList<>();
+        for(int i = 0; i < SALES; i++) {
+            Customer customer = customerRepository.save(new Customer("John", "Doe", "query.count" + i + "@gmail.com"));
+            Sale sale = Sale.builder()
+                    .saleDate(LocalDate.now())
+                    .totalAmount(BigDecimal.valueOf(300))
+                    .customer(customer)
+                    .saleDetails(new ArrayList<>())
+                    .build();
+
+            for(Product product : products) {
+                sale.getSaleDetails().add(SaleDetail.builder()
+                        .product(product)
+                        .quantity(1)
+                        .price(BigDecimal.valueOf(100))
+                        .sale(sale)
+                        .build());
+            }
+            sales.add(sale);
+        }
+        saleRepository.saveAll(sales);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllSales_ShouldLoadEverySaleInASingleQueryWithoutManagedEntities() {
+        List<SaleResponseDTO> sales = saleService.getAllSales();
+
+        assertEquals(SALES, sales.size());
+        assertEquals(DETAILS_PER_SALE, sales.get(SALES - 1).saleDetails().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getSalesPage_ShouldLoadAPageInTwoQueries() {
+        SalePageResponseDTO page = saleService.getSalesPage(null, 25);
+
+        assertEquals(25, page.content().size());
+        assertEquals(DETAILS_PER_SALE, page.content().get(24).saleDetails().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getSaleById_ShouldLoadTheSaleInASingleQuery() {
+        Long id = saleRepository.findAll().get(0).getId();
+        statistics.clear();
+
+        SaleResponseDTO sale = saleService.getSaleById(id);
+
+        assertEquals(DETAILS_PER_SALE, sale.saleDetails().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void streamAllSales_ShouldReadEverySaleInASingleQuery() {
+        List<SaleResponseDTO> streamed = new ArrayList<>();
+
+        saleService.streamAllSales(streamed::add);
+
+        assertEquals(SALES, streamed.size());
+        assertEquals(DETAILS_PER_SALE, streamed.get(SALES - 1).saleDetails().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void cancelSale_ShouldRunAFixedNumberOfStatements_WhateverTheNumberOfLines() {
+        Long id = saleRepository.findAll().get(0).getId();
+        statistics.clear();
+
+        SaleResponseDTO sale = saleService.cancelSale(id);
+
+        assertEquals(SaleStatus.CANCELED, sale.status());
+        // Load, status flip, stock restore and daily aggregate update
+        assertEquals(4, statistics.getPrepareStatementCount());
+        for(Product product : productRepository.findAll()) {
+            assertEquals(1001, product.getStock());
+        }
+    }
+}
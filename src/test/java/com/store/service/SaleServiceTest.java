@@ -1,8 +1,12 @@
 package com.store.service;
 
+import com.store.config.SalePageProperties;
 import com.store.dto.customer.CustomerResponseDTO;
+import com.store.dto.product.ProductResponseDTO;
+import com.store.dto.sale.SalePageResponseDTO;
 import com.store.dto.sale.SaleRequestDTO;
 import com.store.dto.sale.SaleResponseDTO;
+import com.store.dto.sale.SaleRowDTO;
 import com.store.dto.saleDetail.SaleDetailRequestDTO;
 import com.store.dto.saleDetail.SaleDetailResponseDTO;
 import com.store.entity.Customer;
@@ -14,18 +18,26 @@ import com.store.exception.customer.CustomerNotFoundException;
 import com.store.exception.product.InsufficientStockException;
 import com.store.exception.product.ProductNotFoundException;
 import com.store.exception.sale.InvalidSaleStateException;
-import com.store.exception.sale.MaxSalesPerDayException;
+import com.store.exception.sale.SaleLimitExceededException;
 import com.store.exception.sale.SaleNotFoundException;
 import com.store.mapper.SaleMapper;
 import com.store.repository.CustomerRepository;
 import com.store.repository.ProductRepository;
 import com.store.repository.SaleRepository;
+import com.store.service.idempotency.IdempotencyStore;
+import com.store.service.limit.SaleLimitService;
+import com.store.service.ranking.TopSellingTracker;
+import com.store.service.report.DailySalesAggregator;
+import com.store.service.stock.LowStockIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -50,6 +62,33 @@ public class SaleServiceTest {
     @Mock
     private SaleMapper saleMapper;
 
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private SaleLimitService saleLimitService;
+
+    @Mock
+    private ProductCatalog productCatalog;
+
+    @Mock
+    private CustomerDirectory customerDirectory;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private DailySalesAggregator dailySalesAggregator;
+
+    @Mock
+    private TopSellingTracker topSellingTracker;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Spy
+    private SalePageProperties salePageProperties = new SalePageProperties(2, 3);
+
     @InjectMocks
     private SaleService saleService;
 
@@ -59,161 +98,96 @@ public class SaleServiceTest {
     @Test
     void getSaleById_ShouldReturnASale_WhenSaleExist() {
         Long existingSaleId = 1L;
+        LocalDate saleDate = LocalDate.now();
 
-        Customer customer = Customer.builder()
-                .id(1L)
-                .name("John")
-                .lastName("Doe")
-                .email("jd@gmail.com")
-                .build();
-
-        Product product = Product.builder()
-                .id(1L)
-                .name("Blue Cheese")
-                .brand("La Serenisima")
-                .price(6000)
-                .stock(15)
-                .build();
-
-        List<SaleDetail> saleDetails = new ArrayList<>();
-        SaleDetail saleDetail1 = SaleDetail.builder()
-                .id(1L)
-                .product(product)
-                .quantity(1)
-                .price(BigDecimal.valueOf(6000))
-                .build();
-        saleDetails.add(saleDetail1);
-
-        Sale sale = Sale.builder()
-                .id(existingSaleId)
-                .saleDate(LocalDate.now())
-                .totalAmount(BigDecimal.valueOf(6000))
-                .customer(customer)
-                .saleDetails(saleDetails)
-                .build();
-
-        CustomerResponseDTO customerResponseDTO = new CustomerResponseDTO(
-                customer.getId(),
-                customer.getName(),
-                customer.getLastName(),
-                customer.getEmail()
-        );
-
-        SaleDetailResponseDTO saleDetailResponseDTO = new SaleDetailResponseDTO(
-                product.getId(),
-                product.getName(),
-                saleDetail1.getQuantity(),
-                saleDetail1.getPrice()
-        );
-
-        SaleResponseDTO expectedResponse = new SaleResponseDTO(
-                sale.getId(),
-                sale.getSaleDate(),
-                sale.getTotalAmount(),
-                customerResponseDTO,
-                List.of(saleDetailResponseDTO),
-                sale.getStatus()
+        List<SaleRowDTO> rows = List.of(
+                saleRow(existingSaleId, 1L, "Blue Cheese", 1, BigDecimal.valueOf(6000)),
+                saleRow(existingSaleId, 2L, "Milk", 2, BigDecimal.valueOf(1500))
         );
 
-
-        when(saleRepository.findById(existingSaleId)).thenReturn(Optional.of(sale));
-        when(saleMapper.toSaleResponse(sale)).thenReturn(expectedResponse);
+        when(saleRepository.findRowsById(existingSaleId)).thenReturn(rows);
 
         SaleResponseDTO actualResponse = saleService.getSaleById(existingSaleId);
 
-        assertEquals(expectedResponse.id(), actualResponse.id());
-        assertEquals(expectedResponse.customer().name(), actualResponse.customer().name());
-        assertEquals(expectedResponse.saleDetails().get(0).price(), actualResponse.saleDetails().get(0).price());
+        assertEquals(existingSaleId, actualResponse.id());
+        assertEquals(saleDate, actualResponse.saleDate());
+        assertEquals(new CustomerResponseDTO(1L, "John", "Doe", "jd@gmail.com"), actualResponse.customer());
+        assertEquals(List.of(
+                new SaleDetailResponseDTO(1L, "Blue Cheese", 1, BigDecimal.valueOf(6000)),
+                new SaleDetailResponseDTO(2L, "Milk", 2, BigDecimal.valueOf(1500))
+        ), actualResponse.saleDetails());
 
-        verify(saleRepository).findById(existingSaleId);
-        verify(saleMapper).toSaleResponse(sale);
+        verify(saleRepository).findRowsById(existingSaleId);
+        verifyNoInteractions(saleMapper);
     }
 
     @Test
     void getSaleById_ShouldThrowAnException_WhenSaleNotExist() {
         Long nonExistingSale = 1L;
 
-        when(saleRepository.findById(nonExistingSale)).thenReturn(Optional.empty());
+        when(saleRepository.findRowsById(nonExistingSale)).thenReturn(List.of());
 
         assertThrows(SaleNotFoundException.class, () ->
                 saleService.getSaleById(nonExistingSale));
 
-        verify(saleRepository, times(1)).findById(nonExistingSale);
+        verify(saleRepository, times(1)).findRowsById(nonExistingSale);
     }
 
     @Test
-    void getAllSales_ShouldReturnAListOfSales_WhenSalesExists() {
-        Customer customer = Customer.builder()
-                .id(1L)
-                .name("John")
-                .lastName("Doe")
-                .email("jd@gmail.com")
-                .build();
+    void getSalesPage_ShouldReturnNextCursor_WhenMoreSalesExist() {
+        when(saleRepository.findIdsAfter(10L, Limit.of(3))).thenReturn(List.of(11L, 12L, 13L));
+        when(saleRepository.findRowsByIdIn(List.of(11L, 12L))).thenReturn(List.of(
+                saleRow(11L, 1L, "Blue Cheese", 1, BigDecimal.valueOf(6000)),
+                saleRow(12L, 1L, "Blue Cheese", 3, BigDecimal.valueOf(6000))
+        ));
 
-        Product product = Product.builder()
-                .id(1L)
-                .name("Blue Cheese")
-                .brand("La Serenisima")
-                .price(6000)
-                .stock(15)
-                .build();
+        SalePageResponseDTO page = saleService.getSalesPage(10L, null);
 
-        SaleDetail saleDetail = SaleDetail.builder()
-                .id(1L)
-                .product(product)
-                .quantity(1)
-                .price(BigDecimal.valueOf(6000))
-                .build();
+        assertEquals(List.of(11L, 12L), page.content().stream().map(SaleResponseDTO::id).toList());
+        assertEquals(12L, page.nextCursor());
+    }
 
-        Sale sale = Sale.builder()
-                .id(1L)
-                .saleDate(LocalDate.now())
-                .totalAmount(BigDecimal.valueOf(6000))
-                .customer(customer)
-                .saleDetails(List.of(saleDetail))
-                .build();
+    @Test
+    void getSalesPage_ShouldCapPageSizeAndEndPaging_WhenLastPageIsReached() {
+        when(saleRepository.findIdsAfter(0L, Limit.of(4))).thenReturn(List.of(1L));
+        when(saleRepository.findRowsByIdIn(List.of(1L))).thenReturn(List.of(
+                saleRow(1L, 1L, "Blue Cheese", 1, BigDecimal.valueOf(6000))
+        ));
 
-        List<Sale> saleList = List.of(sale);
+        SalePageResponseDTO page = saleService.getSalesPage(null, 1000);
 
-        SaleResponseDTO saleResponseDTO = new SaleResponseDTO(
-                sale.getId(),
-                sale.getSaleDate(),
-                sale.getTotalAmount(),
-                new CustomerResponseDTO(customer.getId(),
-                        customer.getName(),
-                        customer.getLastName(),
-                        customer.getEmail()),
-                List.of(new SaleDetailResponseDTO(product.getId(),
-                        product.getName(),
-                        saleDetail.getQuantity(),
-                        saleDetail.getPrice())),
-                SaleStatus.ACTIVE
-        );
-
-        List<SaleResponseDTO> expectedSaleResponseList = List.of(saleResponseDTO);
+        assertEquals(1, page.content().size());
+        assertNull(page.nextCursor());
+        verify(saleRepository).findIdsAfter(0L, Limit.of(4));
+    }
 
-        when(saleRepository.findAll()).thenReturn(saleList);
-        when(saleMapper.toSaleResponseList(saleList)).thenReturn(expectedSaleResponseList);
+    @Test
+    void getAllSales_ShouldReturnAListOfSales_WhenSalesExists() {
+        when(saleRepository.findAllRows()).thenReturn(List.of(
+                saleRow(1L, 1L, "Blue Cheese", 1, BigDecimal.valueOf(6000)),
+                saleRow(1L, 2L, "Milk", 2, BigDecimal.valueOf(1500)),
+                saleRow(2L, null, null, null, null)
+        ));
 
         List<SaleResponseDTO> actualSaleResponseList = saleService.getAllSales();
 
-        assertEquals(expectedSaleResponseList.size(), actualSaleResponseList.size());
-        assertEquals(expectedSaleResponseList.get(0).customer().name(), actualSaleResponseList.get(0).customer().name());
-        assertEquals(expectedSaleResponseList.get(0).saleDetails().get(0).productName(), actualSaleResponseList.get(0).saleDetails().get(0).productName());
+        assertEquals(2, actualSaleResponseList.size());
+        assertEquals("John", actualSaleResponseList.get(0).customer().name());
+        assertEquals("Milk", actualSaleResponseList.get(0).saleDetails().get(1).productName());
+        assertTrue(actualSaleResponseList.get(1).saleDetails().isEmpty());
 
-        verify(saleRepository).findAll();
-        verify(saleMapper).toSaleResponseList(saleList);
+        verify(saleRepository).findAllRows();
     }
 
     @Test
     void getAllSales_ShouldReturnAnEmptyList_WhenSalesNotExists() {
-        when(saleRepository.findAll()).thenReturn(Collections.emptyList());
+        when(saleRepository.findAllRows()).thenReturn(Collections.emptyList());
 
         List<SaleResponseDTO> saleResponseDTOList = saleService.getAllSales();
 
         assertTrue(saleResponseDTOList.isEmpty());
 
-        verify(saleRepository).findAll();
+        verify(saleRepository).findAllRows();
     }
 
     // TODO: Refactor
@@ -274,21 +248,59 @@ public class SaleServiceTest {
                 SaleStatus.ACTIVE
         );
 
-        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(customerDirectory.getCustomer(customer.getId())).thenReturn(expectedResponse.customer());
+        when(customerRepository.getReferenceById(customer.getId())).thenReturn(customer);
+        when(productCatalog.getProducts(Set.of(product.getId()))).thenReturn(Map.of(product.getId(), productResponse(product)));
         when(saleRepository.save(sale)).thenReturn(sale);
-        when(saleMapper.toSaleResponse(sale)).thenReturn(expectedResponse);
 
         SaleResponseDTO actualResponse = saleService.createNewSale(saleRequestDTO);
 
         assertEquals(expectedResponse.totalAmount(), actualResponse.totalAmount());
         assertEquals(expectedResponse.customer().name(), actualResponse.customer().name());
-        assertEquals(expectedResponse.saleDetails().get(0).productName(), actualResponse.saleDetails().get(0).productName());
+        assertEquals(expectedResponse.saleDetails(), actualResponse.saleDetails());
 
-        verify(customerRepository).findById(customer.getId());
-        verify(productRepository).findById(product.getId());
+        verify(customerDirectory).getCustomer(customer.getId());
+        verify(customerRepository, never()).findById(anyLong());
+        verify(productCatalog).getProducts(Set.of(product.getId()));
+        verify(productRepository, never()).findAllById(anyIterable());
         verify(saleRepository).save(sale);
-        verify(saleMapper).toSaleResponse(sale);
+        verify(dailySalesAggregator).recordSales(List.of(sale));
+        verify(topSellingTracker).recordAfterCommit(List.of(sale));
+        verify(lowStockIndex).decrementAfterCommit(Map.of(product.getId(), 1));
+        verify(productCatalog).evictAfterCommit(Set.of(product.getId()));
+    }
+
+    @Test
+    void createNewSale_ShouldClaimTheKeyBeforeTheCheckout_WhenAnIdempotencyKeyIsGiven() {
+        Customer customer = Customer.builder()
+                .id(1L)
+                .name("John")
+                .lastName("Doe")
+                .email("jd@gmail.com")
+                .build();
+
+        Product product = Product.builder()
+                .id(1L)
+                .name("Blue Cheese")
+                .brand("La Serenisima")
+                .price(6000)
+                .stock(15)
+                .build();
+
+        SaleRequestDTO saleRequest = new SaleRequestDTO(1L, List.of(new SaleDetailRequestDTO(1L, 1, BigDecimal.valueOf(6000))));
+
+        when(customerDirectory.getCustomer(1L)).thenReturn(customerResponse(customer));
+        when(customerRepository.getReferenceById(1L)).thenReturn(customer);
+        when(productCatalog.getProducts(Set.of(1L))).thenReturn(Map.of(1L, productResponse(product)));
+        when(saleRepository.save(any(Sale.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        SaleResponseDTO response = saleService.createNewSale(saleRequest, "key-1", "hash-1");
+
+        InOrder inOrder = inOrder(idempotencyStore, saleLimitService, stockReservationService);
+        inOrder.verify(idempotencyStore).claim("key-1", "hash-1");
+        inOrder.verify(saleLimitService).reserve(1L, Set.of(1L));
+        inOrder.verify(stockReservationService).reserve(anyMap(), any());
+        inOrder.verify(idempotencyStore).complete("key-1", "hash-1", response);
     }
 
     @Test
@@ -300,14 +312,15 @@ public class SaleServiceTest {
 
         SaleRequestDTO saleRequest = new SaleRequestDTO(nonExistingCustomerId, detailsRequest);
 
-        when(customerRepository.findById(nonExistingCustomerId)).thenReturn(Optional.empty());
+        when(customerDirectory.getCustomer(nonExistingCustomerId))
+                .thenThrow(new CustomerNotFoundException("Customer with id " + nonExistingCustomerId + " not found"));
 
         assertThrows(CustomerNotFoundException.class,
                 () -> saleService.createNewSale(saleRequest),
                 "Expected CustomerNotFoundException when customer does not exist"
         );
 
-        verify(customerRepository).findById(nonExistingCustomerId);
+        verify(customerDirectory).getCustomer(nonExistingCustomerId);
         verifyNoInteractions(productRepository, saleRepository);
     }
 
@@ -327,16 +340,16 @@ public class SaleServiceTest {
 
         SaleRequestDTO saleRequest = new SaleRequestDTO(customer.getId(), detailsRequest);
 
-        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
-        when(productRepository.findById(nonExistingProduct)).thenReturn(Optional.empty());
+        when(customerDirectory.getCustomer(customer.getId())).thenReturn(customerResponse(customer));
+        when(productCatalog.getProducts(Set.of(nonExistingProduct))).thenReturn(Collections.emptyMap());
 
         assertThrows(ProductNotFoundException.class,
                 () -> saleService.createNewSale(saleRequest),
                 "Expected ProductNotFoundException when product does not exist"
         );
 
-        verify(customerRepository).findById(customer.getId());
-        verify(productRepository).findById(nonExistingProduct);
+        verify(customerDirectory).getCustomer(customer.getId());
+        verify(productCatalog).getProducts(Set.of(nonExistingProduct));
     }
 
     @Test
@@ -355,10 +368,11 @@ public class SaleServiceTest {
 
         SaleRequestDTO saleRequestDTO = new SaleRequestDTO(1L, detailsRequest);
 
-        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
-        when(saleRepository.countSalesByCustomerAndDate(customer.getId(), LocalDate.now())).thenReturn(4);
+        when(customerDirectory.getCustomer(customer.getId())).thenReturn(customerResponse(customer));
+        doThrow(new SaleLimitExceededException("Sale limit 'customer-daily' reached for customer:1"))
+                .when(saleLimitService).reserve(customer.getId(), Set.of(1L));
 
-        assertThrows(MaxSalesPerDayException.class,
+        assertThrows(SaleLimitExceededException.class,
                 () -> saleService.createNewSale(saleRequestDTO));
     }
 
@@ -389,11 +403,61 @@ public class SaleServiceTest {
 
         SaleRequestDTO saleRequestDTO = new SaleRequestDTO(1L, detailsRequest);
 
-        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(customerDirectory.getCustomer(customer.getId())).thenReturn(customerResponse(customer));
+        when(productCatalog.getProducts(Set.of(product.getId()))).thenReturn(Map.of(product.getId(), productResponse(product)));
+        doThrow(new InsufficientStockException("Insufficient stock for product " + product.getName()))
+                .when(stockReservationService).reserve(anyMap(), any());
 
         assertThrows(InsufficientStockException.class,
                 () -> saleService.createNewSale(saleRequestDTO));
+
+        verify(saleRepository, never()).save(any(Sale.class));
+    }
+
+    @Test
+    void createNewSale_ShouldLoadAllProductsAtOnce_WhenBasketHasManyLines() {
+        Customer customer = Customer.builder()
+                .id(1L)
+                .name("John")
+                .lastName("Doe")
+                .email("jd@gmail.com")
+                .build();
+
+        Product cheese = Product.builder()
+                .id(1L)
+                .name("Blue Cheese")
+                .brand("La Serenisima")
+                .price(6000)
+                .stock(15)
+                .build();
+
+        Product milk = Product.builder()
+                .id(2L)
+                .name("Milk")
+                .brand("La Serenisima")
+                .price(1500)
+                .stock(10)
+                .build();
+
+        List<SaleDetailRequestDTO> detailsRequest = List.of(
+                new SaleDetailRequestDTO(1L, 2, BigDecimal.valueOf(6000)),
+                new SaleDetailRequestDTO(2L, 4, BigDecimal.valueOf(1500)),
+                new SaleDetailRequestDTO(1L, 3, BigDecimal.valueOf(6000))
+        );
+
+        SaleRequestDTO saleRequestDTO = new SaleRequestDTO(1L, detailsRequest);
+
+        when(customerDirectory.getCustomer(customer.getId())).thenReturn(customerResponse(customer));
+        when(customerRepository.getReferenceById(customer.getId())).thenReturn(customer);
+        Map<Long, ProductResponseDTO> products = Map.of(1L, productResponse(cheese), 2L, productResponse(milk));
+        when(productCatalog.getProducts(Set.of(1L, 2L))).thenReturn(products);
+        when(saleRepository.save(any(Sale.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        saleService.createNewSale(saleRequestDTO);
+
+        verify(productCatalog, times(1)).getProducts(Set.of(1L, 2L));
+        verify(productRepository, never()).findById(anyLong());
+        verify(stockReservationService).reserve(products, new TreeMap<>(Map.of(1L, 5, 2L, 4)));
     }
 
     @Test
@@ -446,25 +510,61 @@ public class SaleServiceTest {
                 SaleStatus.CANCELED
         );
 
-        when(saleRepository.findById(existingSaleId)).thenReturn(Optional.of(sale));
+        when(saleRepository.findWithDetailsById(existingSaleId)).thenReturn(Optional.of(sale));
+        when(saleRepository.cancelActive(List.of(existingSaleId))).thenReturn(1);
         when(saleMapper.toSaleResponse(sale)).thenReturn(expectedResponse);
 
         SaleResponseDTO actualResponse = saleService.cancelSale(existingSaleId);
 
         assertEquals(SaleStatus.CANCELED, actualResponse.status());
-        assertEquals(16, product.getStock());
+        verify(productRepository).restoreStock(List.of(existingSaleId));
+        verify(dailySalesAggregator).removeSales(List.of(existingSaleId));
+        verify(topSellingTracker).removeAfterCommit(List.of(sale));
+        verify(lowStockIndex).restoreAfterCommit(List.of(sale));
+        verify(productRepository, never()).save(any(Product.class));
+        verify(saleLimitService).release(customer.getId(), Set.of(product.getId()), sale.getSaleDate());
+        verify(productCatalog).evictAfterCommit(Set.of(product.getId()));
+    }
+
+    @Test
+    void cancelSale_ShouldThrowAnException_IfAConcurrentCancelWon() {
+        Long existingSaleId = 1L;
+
+        Customer customer = Customer.builder()
+                .id(1L)
+                .name("John")
+                .lastName("Doe")
+                .email("jd@gmail.com")
+                .build();
+
+        Sale sale = Sale.builder()
+                .id(existingSaleId)
+                .saleDate(LocalDate.now())
+                .totalAmount(BigDecimal.valueOf(6000))
+                .customer(customer)
+                .saleDetails(new ArrayList<>())
+                .build();
+
+        when(saleRepository.findWithDetailsById(existingSaleId)).thenReturn(Optional.of(sale));
+        when(saleRepository.cancelActive(List.of(existingSaleId))).thenReturn(0);
+
+        assertThrows(InvalidSaleStateException.class,
+                () -> saleService.cancelSale(existingSaleId));
+
+        verify(productRepository, never()).restoreStock(anyCollection());
+        verifyNoInteractions(saleLimitService);
     }
 
     @Test
     void cancelSale_ShouldThrowAnException_IfSaleNotExist() {
         Long nonExistingSaleId = 1L;
 
-        when(saleRepository.findById(nonExistingSaleId)).thenReturn(Optional.empty());
+        when(saleRepository.findWithDetailsById(nonExistingSaleId)).thenReturn(Optional.empty());
 
         assertThrows(SaleNotFoundException.class,
                 () -> saleService.cancelSale(nonExistingSaleId));
 
-        verify(saleRepository).findById(nonExistingSaleId);
+        verify(saleRepository).findWithDetailsById(nonExistingSaleId);
     }
 
     @Test
@@ -504,11 +604,24 @@ public class SaleServiceTest {
                 .status(SaleStatus.CANCELED)
                 .build();
 
-        when(saleRepository.findById(existingSaleId)).thenReturn(Optional.of(sale));
+        when(saleRepository.findWithDetailsById(existingSaleId)).thenReturn(Optional.of(sale));
 
         assertThrows(InvalidSaleStateException.class,
                 () -> saleService.cancelSale(existingSaleId));
 
-        verify(saleRepository).findById(existingSaleId);
+        verify(saleRepository).findWithDetailsById(existingSaleId);
+    }
+
+    private CustomerResponseDTO customerResponse(Customer customer) {
+        return new CustomerResponseDTO(customer.getId(), customer.getName(), customer.getLastName(), customer.getEmail());
+    }
+
+    private ProductResponseDTO productResponse(Product product) {
+        return new ProductResponseDTO(product.getId(), product.getName(), product.getBrand(), product.getPrice(), product.getStock());
+    }
+
+    private SaleRowDTO saleRow(Long saleId, Long productId, String productName, Integer quantity, BigDecimal price) {
+        return new SaleRowDTO(saleId, LocalDate.now(), BigDecimal.valueOf(9000), SaleStatus.ACTIVE,
+                1L, "John", "Doe", "jd@gmail.com", productId, productName, quantity, price);
     }
 }
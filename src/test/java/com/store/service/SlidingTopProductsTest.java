@@ -0,0 +1,84 @@
+package com.store.service;
+
+import com.store.service.ranking.SlidingTopProducts;
+import com.store.service.ranking.SlidingTopProducts.ProductUnits;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SlidingTopProductsTest {
+
+    private static final long MINUTE = 60_000;
+
+    @Test
+    void top_ShouldRankTheHeavyHitters_WhenMixedWithALongTail() {
+        SlidingTopProducts window = new SlidingTopProducts(60 * MINUTE, 12, 2048, 5, 64);
+
+        // Ten products selling 1000, 1500, ... 5500 units hidden among 50000 products selling one to three units each
+        List<long[]> sales = new ArrayList<>();
+        for(int heavy = 0; heavy < 10; heavy++) {
+            for(int unit = 0; unit < 1_000 + 500 * heavy; unit++) {
+                sales.add(new long[]{heavy, 1});
+            }
+        }
+        Random random = new Random(5);
+        long total = 32_500;
+        for(long tail = 100; tail < 50_100; tail++) {
+            long units = 1 + random.nextInt(3);
+            sales.add(new long[]{tail, units});
+            total += units;
+        }
+        Collections.shuffle(sales, random);
+
+        for(long[] sale : sales) {
+            window.add(sale[0], sale[1], 0);
+        }
+
+        List<ProductUnits> top = window.top(10, 0);
+        double bound = Math.E / 2048 * total;
+
+        assertEquals(10, top.size());
+        for(int rank = 0; rank < 10; rank++) {
+            long productId = 9 - rank;
+            long exact = 1_000 + 500 * productId;
+
+            assertEquals(productId, top.get(rank).productId());
+            assertTrue(top.get(rank).units() >= exact);
+            assertTrue(top.get(rank).units() - exact <= bound);
+        }
+    }
+
+    @Test
+    void top_ShouldForgetSales_WhenTheirBucketLeavesTheWindow() {
+        SlidingTopProducts window = new SlidingTopProducts(6 * MINUTE, 6, 256, 3, 16);
+
+        window.add(1, 10, 0);
+        window.add(2, 4, 4 * MINUTE);
+
+        assertEquals(List.of(new ProductUnits(1, 10), new ProductUnits(2, 4)), window.top(5, 5 * MINUTE));
+        assertEquals(List.of(new ProductUnits(2, 4)), window.top(5, 6 * MINUTE));
+        assertEquals(List.of(), window.top(5, 20 * MINUTE));
+    }
+
+    @Test
+    void remove_ShouldTakeUnitsBackFromTheirBucket_WhileItIsInTheWindow() {
+        SlidingTopProducts window = new SlidingTopProducts(6 * MINUTE, 6, 256, 3, 16);
+
+        window.add(1, 10, 0);
+        window.add(1, 5, 2 * MINUTE);
+        window.remove(1, 10, 0, 3 * MINUTE);
+
+        assertEquals(List.of(new ProductUnits(1, 5)), window.top(5, 3 * MINUTE));
+
+        window.remove(1, 5, 2 * MINUTE, 9 * MINUTE);
+        window.add(1, 7, 9 * MINUTE);
+
+        assertEquals(List.of(new ProductUnits(1, 7)), window.top(5, 9 * MINUTE));
+    }
+}
@@ -0,0 +1,129 @@
+package com.store.service;
+
+import com.store.config.StockProperties;
+import com.store.dto.product.ProductResponseDTO;
+import com.store.entity.Product;
+import com.store.enums.StockReservationMode;
+import com.store.exception.product.InsufficientStockException;
+import com.store.exception.product.ProductNotFoundException;
+import com.store.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockReservationServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private Product buildProduct(Long id, String name, int stock) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .brand("La Serenisima")
+                .price(6000)
+                .stock(stock)
+                .build();
+    }
+
+    private ProductResponseDTO productResponse(Product product) {
+        return new ProductResponseDTO(product.getId(), product.getName(), product.getBrand(), product.getPrice(), product.getStock());
+    }
+
+    @Test
+    void reserve_ShouldDecrementAtomicallyInProductIdOrder_WhenModeIsAtomic() {
+        StockReservationService stockReservationService =
+                new StockReservationService(productRepository, new StockProperties(StockReservationMode.ATOMIC));
+
+        Product cheese = buildProduct(1L, "Blue Cheese", 15);
+        Product milk = buildProduct(2L, "Milk", 10);
+
+        when(productRepository.decrementStock(anyLong(), anyInt())).thenReturn(1);
+
+        stockReservationService.reserve(Map.of(1L, productResponse(cheese), 2L, productResponse(milk)),
+                new TreeMap<>(Map.of(2L, 4, 1L, 5)));
+
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).decrementStock(1L, 5);
+        inOrder.verify(productRepository).decrementStock(2L, 4);
+
+        assertEquals(15, cheese.getStock());
+        assertEquals(10, milk.getStock());
+    }
+
+    @Test
+    void reserve_ShouldThrowAnException_WhenConditionalUpdateMatchesNoRow() {
+        StockReservationService stockReservationService =
+                new StockReservationService(productRepository, new StockProperties(StockReservationMode.ATOMIC));
+
+        Product cheese = buildProduct(1L, "Blue Cheese", 15);
+
+        when(productRepository.decrementStock(1L, 5)).thenReturn(0);
+
+        assertThrows(InsufficientStockException.class,
+                () -> stockReservationService.reserve(Map.of(1L, productResponse(cheese)), new TreeMap<>(Map.of(1L, 5))));
+    }
+
+    @Test
+    void reserve_ShouldThrowAnException_WhenLoadedStockIsInsufficient() {
+        StockReservationService stockReservationService =
+                new StockReservationService(productRepository, new StockProperties(StockReservationMode.OPTIMISTIC));
+
+        Product cheese = buildProduct(1L, "Blue Cheese", 4);
+
+        when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of(cheese));
+
+        assertThrows(InsufficientStockException.class,
+                () -> stockReservationService.reserve(Map.of(1L, productResponse(cheese)), new TreeMap<>(Map.of(1L, 5))));
+
+        assertEquals(4, cheese.getStock());
+    }
+
+    @Test
+    void reserve_ShouldThrowAnException_WhenAProductWasDeletedAfterItWasCached() {
+        StockReservationService stockReservationService =
+                new StockReservationService(productRepository, new StockProperties(StockReservationMode.OPTIMISTIC));
+
+        Product cheese = buildProduct(1L, "Blue Cheese", 15);
+        Product milk = buildProduct(2L, "Milk", 10);
+
+        when(productRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(cheese));
+
+        assertThrows(ProductNotFoundException.class,
+                () -> stockReservationService.reserve(Map.of(1L, productResponse(cheese), 2L, productResponse(milk)),
+                        new TreeMap<>(Map.of(1L, 5, 2L, 4))));
+
+        assertEquals(15, cheese.getStock());
+    }
+
+    @Test
+    void reserve_ShouldUpdateManagedEntities_WhenModeIsOptimistic() {
+        StockReservationService stockReservationService =
+                new StockReservationService(productRepository, new StockProperties(StockReservationMode.OPTIMISTIC));
+
+        Product cheese = buildProduct(1L, "Blue Cheese", 15);
+        Product milk = buildProduct(2L, "Milk", 10);
+
+        when(productRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(cheese, milk));
+
+        stockReservationService.reserve(Map.of(1L, productResponse(cheese), 2L, productResponse(milk)),
+                new TreeMap<>(Map.of(1L, 5, 2L, 4)));
+
+        assertEquals(10, cheese.getStock());
+        assertEquals(6, milk.getStock());
+
+        verify(productRepository, never()).decrementStock(anyLong(), anyInt());
+    }
+}